@@ -0,0 +1,228 @@
+package io.github.dmitrybdev.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.PackageNamesLoader;
+import com.puppycrawl.tools.checkstyle.PackageObjectFactory;
+import com.puppycrawl.tools.checkstyle.TreeWalker;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+
+import java.util.Map;
+
+/**
+ * Realistic inputs for the benchmarks: annotation-heavy Spring services, large records and generated code,
+ * together with the templates used to check them.
+ */
+final class BenchmarkSources {
+
+    static final String TYPE_TEMPLATE = """
+            @Service @Component @RestController @Configuration
+            @Transactional @Validated @RequestMapping
+            @Getter @Setter @Builder @NoArgsConstructor @AllArgsConstructor
+            @Deprecated @SuppressWarnings
+            public protected private abstract static final sealed non-sealed
+            """;
+    static final String FIELD_TEMPLATE = """
+            @Autowired @Inject @Value()
+            @Getter @Setter
+            @JsonProperty() @JsonIgnore @NotNull @Size() @Valid
+            public protected private static final transient volatile @Nullable type
+            """;
+    static final String METHOD_TEMPLATE = """
+            @Bean @Primary @Lazy @Order()
+            @GetMapping() @PostMapping() @PutMapping() @DeleteMapping()
+            @Transactional @Cacheable() @PreAuthorize()
+            @Override @Deprecated @SuppressWarnings()
+            public protected private abstract static final synchronized default @Nullable type
+            """;
+    static final String DECLARATION_TEMPLATE = """
+            public static final field
+            private static final field
+            private static field
+            @Autowired private field
+            private final field
+            private field
+            public constructor
+            private constructor
+            @Bean public method
+            @Override public method
+            public method getter
+            public method setter
+            public static method
+            public method
+            protected method
+            private method
+            public static class
+            public record
+            public enum
+            public interface
+            private class
+            """;
+    static final String BOUNDARY_AFTER = "field";
+    static final String BOUNDARY_BEFORE = "method, constructor";
+
+    static final Map<String, String> CHECKS = Map.of(
+            "annotation", "AnnotationOrderCheck",
+            "declaration", "DeclarationOrderCheck",
+            "boundary", "BoundaryCheck",
+            "suite", "ModifiersSuiteCheck"
+    );
+
+
+    private BenchmarkSources() {}
+
+
+    static String get(String source, int members) {
+        return switch (source) {
+            case "spring" -> springService(members);
+            case "record" -> largeRecord(members);
+            case "generated" -> generated(members);
+            default -> throw new IllegalArgumentException(source);
+        };
+    }
+
+    static String springService(int members) {
+        var source = new StringBuilder("""
+                package com.example.service;
+
+                import org.springframework.stereotype.Service;
+
+                /**
+                 * Service with annotation-heavy members.
+                 */
+                @Service @Transactional
+                @Validated @RequestMapping("/api")
+                @Getter @Setter
+                public class OrderService {
+                """);
+        for (int i = 0; i < members; i++) {
+            source.append("""
+
+                        @Autowired
+                        @Getter @Setter
+                        private @Nullable OrderRepository repository%1$d;
+                        @Value("${order.limit%1$d}")
+                        private final int limit%1$d = 0;
+
+                        /**
+                         * Returns the order %1$d.
+                         *
+                         * @return the order
+                         */
+                        @GetMapping("/orders/%1$d") @Transactional
+                        @Cacheable("orders") @PreAuthorize("hasRole('USER')")
+                        public @Nullable Order getOrder%1$d() {
+                            return repository%1$d.findById(%1$d);
+                        }
+
+                        @Override @Deprecated
+                        public synchronized void setLimit%1$d(int limit) {
+                            // keeps the limit
+                            this.limit%1$d = limit;
+                        }
+                    """.formatted(i));
+        }
+        return source.append("}\n").toString();
+    }
+
+    static String largeRecord(int components) {
+        var source = new StringBuilder("""
+                package com.example.model;
+
+                @Builder
+                @JsonIgnoreProperties(ignoreUnknown = true)
+                public record Customer(
+                """);
+        for (int i = 0; i < components; i++) {
+            source.append("        @JsonProperty(\"field%1$d\") @NotNull @Size(max = 255) String field%1$d,\n"
+                    .formatted(i));
+        }
+        source.append("""
+                        @Nullable String last
+                ) {
+                    public Customer {
+                        Objects.requireNonNull(last);
+                    }
+                """);
+        for (int i = 0; i < components; i++) {
+            source.append("""
+
+                        @JsonIgnore
+                        public String getField%1$dUpperCase() {
+                            return field%1$d.toUpperCase();
+                        }
+                    """.formatted(i));
+        }
+        return source.append("}\n").toString();
+    }
+
+    static String generated(int members) {
+        var source = new StringBuilder("""
+                // Generated by the protocol buffer compiler. DO NOT EDIT!
+                package com.example.proto;
+
+                @SuppressWarnings("all")
+                public final class Messages {
+                    public enum Kind {
+                """);
+        for (int i = 0; i < members; i++) source.append("        KIND_").append(i).append(",\n");
+        source.append("        ;\n    }\n");
+        for (int i = 0; i < members; i++) {
+            source.append("    public static final int FIELD_%1$d_NUMBER = %1$d;\n".formatted(i));
+        }
+        for (int i = 0; i < members; i++) {
+            source.append("""
+                        private volatile java.lang.Object field%1$d_;
+                        @java.lang.Override
+                        public java.lang.String getField%1$d() {
+                            return (java.lang.String) field%1$d_;
+                        }
+                        public Builder setField%1$d(java.lang.String value) {
+                            field%1$d_ = value;
+                            return this;
+                        }
+                    """.formatted(i));
+        }
+        return source.append("}\n").toString();
+    }
+
+    static TreeWalker treeWalker(String check) throws CheckstyleException {
+        var checkConfiguration = new DefaultConfiguration(BenchmarkSources.class.getPackageName() + "." + CHECKS.get(check));
+        switch (check) {
+            case "annotation" -> addAnnotationOrderProperties(checkConfiguration);
+            case "declaration" -> addDeclarationOrderProperties(checkConfiguration);
+            case "boundary" -> addBoundaryProperties(checkConfiguration);
+            case "suite" -> {
+                addAnnotationOrderProperties(checkConfiguration);
+                addDeclarationOrderProperties(checkConfiguration);
+                addBoundaryProperties(checkConfiguration);
+            }
+            default -> throw new IllegalArgumentException(check);
+        }
+
+        var configuration = new DefaultConfiguration(TreeWalker.class.getName());
+        configuration.addChild(checkConfiguration);
+
+        var treeWalker = new TreeWalker();
+        ClassLoader classLoader = BenchmarkSources.class.getClassLoader();
+        treeWalker.setModuleFactory(new PackageObjectFactory(PackageNamesLoader.getPackageNames(classLoader), classLoader));
+        treeWalker.configure(configuration);
+        return treeWalker;
+    }
+
+    private static void addAnnotationOrderProperties(DefaultConfiguration configuration) {
+        configuration.addProperty("typeTemplate", TYPE_TEMPLATE);
+        configuration.addProperty("fieldTemplate", FIELD_TEMPLATE);
+        configuration.addProperty("methodTemplate", METHOD_TEMPLATE);
+    }
+
+    private static void addDeclarationOrderProperties(DefaultConfiguration configuration) {
+        configuration.addProperty("template", DECLARATION_TEMPLATE);
+    }
+
+    private static void addBoundaryProperties(DefaultConfiguration configuration) {
+        configuration.addProperty("after", BOUNDARY_AFTER);
+        configuration.addProperty("before", BOUNDARY_BEFORE);
+        configuration.addProperty("minLength", "3");
+        configuration.addProperty("minNewLines", "1");
+    }
+}
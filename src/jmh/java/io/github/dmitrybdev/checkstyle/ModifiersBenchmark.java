@@ -0,0 +1,75 @@
+package io.github.dmitrybdev.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.JavaParser;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.Modifiers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.puppycrawl.tools.checkstyle.api.TokenTypes.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModifiersBenchmark {
+
+    @Param({ "spring", "record", "generated" })
+    public String source;
+
+    private final AbstractModifiersCheck check = new AbstractModifiersCheck();
+    private final List<DetailAST> declarations = new ArrayList<>();
+
+
+    @Setup
+    public void setUp() throws Exception {
+        var file = new File("Benchmark.java");
+        var text = new FileText(file, BenchmarkSources.get(source, 100).lines().toList());
+        collectDeclarations(JavaParser.parse(new FileContents(text)));
+    }
+
+    private void collectDeclarations(DetailAST ast) {
+        for (DetailAST child = ast; child != null; child = child.getNextSibling()) {
+            switch (child.getType()) {
+                case CLASS_DEF, INTERFACE_DEF, ENUM_DEF, RECORD_DEF, ANNOTATION_DEF, VARIABLE_DEF,
+                        ANNOTATION_FIELD_DEF, PARAMETER_DEF, RECORD_COMPONENT_DEF, ENUM_CONSTANT_DEF, CTOR_DEF,
+                        METHOD_DEF -> declarations.add(child);
+                default -> { }
+            }
+            collectDeclarations(child.getFirstChild());
+        }
+    }
+
+
+    @Benchmark
+    public void extractModifiers(Blackhole blackhole) {
+        for (DetailAST declaration : declarations) {
+            Modifiers modifiers = check.extractModifiers(declaration);
+            blackhole.consume(modifiers != null ? modifiers.size() : 0);
+        }
+    }
+
+    @Benchmark
+    public void getModifiers(Blackhole blackhole) {
+        for (DetailAST declaration : declarations) blackhole.consume(check.getModifiers(declaration));
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.dmitrybdev.checkstyle;
+
+import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.GroupOrder;
+import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.Modifier;
+import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.ModifierOrder;
+import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.Modifiers;
+import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderBenchmark {
+
+    private Order methodTemplate;
+    private Order declarationTemplate;
+    private List<Modifier> method;
+    private Modifiers methodModifiers;
+    private List<Modifier> field;
+    private Modifiers fieldModifiers;
+
+
+    @Setup
+    public void setUp() {
+        var check = new AbstractModifiersCheck();
+        methodTemplate = check.parseTemplate(BenchmarkSources.METHOD_TEMPLATE);
+        declarationTemplate = check.parseTemplate(BenchmarkSources.DECLARATION_TEMPLATE);
+
+        method = List.of(
+                new Modifier("@GetMapping", true, 1, 4),
+                new Modifier("@Transactional", false, 1, 24),
+                new Modifier("@Cacheable", true, 2, 4),
+                new Modifier("@PreAuthorize", true, 2, 24),
+                new Modifier("public", false, 3, 4),
+                new Modifier("@Nullable", false, 3, 11),
+                new Modifier("type", false, 3, 21),
+                new Modifier("method", false, 1, 4),
+                new Modifier("getter", false, 3, 27)
+        );
+        methodModifiers = Modifiers.of(method);
+        field = List.of(
+                new Modifier("@Autowired", false, 1, 4),
+                new Modifier("private", false, 2, 4),
+                new Modifier("final", false, 2, 12),
+                new Modifier("type", false, 2, 18),
+                new Modifier("field", false, 1, 4)
+        );
+        fieldModifiers = Modifiers.of(field);
+    }
+
+
+    @Benchmark
+    public void getModifierOrder(Blackhole blackhole) {
+        for (Modifier modifier : method) blackhole.consume(methodTemplate.getOrder(modifier));
+    }
+
+    @Benchmark
+    public void getModifierOrderByIndex(Blackhole blackhole) {
+        for (int i = 0; i < methodModifiers.size(); i++) blackhole.consume(methodTemplate.getOrder(methodModifiers, i));
+    }
+
+    @Benchmark
+    public GroupOrder getGroupOrder() {
+        return declarationTemplate.getOrder(method);
+    }
+
+    @Benchmark
+    public GroupOrder getGroupOrderFromBuffer() {
+        return declarationTemplate.getOrder(methodModifiers);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return declarationTemplate.matches(fieldModifiers);
+    }
+
+    @Benchmark
+    public ModifierOrder getUnknownModifierOrder() {
+        return methodTemplate.getOrder(field.get(0));
+    }
+}
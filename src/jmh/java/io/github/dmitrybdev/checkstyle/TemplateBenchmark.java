@@ -0,0 +1,58 @@
+package io.github.dmitrybdev.checkstyle;
+
+import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateBenchmark {
+
+    @Param({ "type", "method", "declaration" })
+    public String template;
+
+    private String text;
+    private AbstractModifiersCheck check;
+
+
+    @Setup
+    public void setUp() {
+        text = switch (template) {
+            case "type" -> BenchmarkSources.TYPE_TEMPLATE;
+            case "method" -> BenchmarkSources.METHOD_TEMPLATE;
+            default -> BenchmarkSources.DECLARATION_TEMPLATE;
+        };
+        check = new AbstractModifiersCheck();
+    }
+
+
+    @Benchmark
+    public Order parseTemplate() {
+        return check.parseTemplate(text);
+    }
+
+    @Benchmark
+    public Order compileTemplate() {
+        return AbstractModifiersCheck.compileTemplate(TemplateCache.normalize(text));
+    }
+
+    @Benchmark
+    public String normalizeTemplate() {
+        return TemplateCache.normalize(text);
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.dmitrybdev.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.TreeWalker;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full TreeWalker runs, including parsing; compare against the {@code parse} baseline to get the cost of the
+ * checks alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreeWalkerBenchmark {
+
+    @Param({ "annotation", "declaration", "boundary", "suite" })
+    public String check;
+
+    @Param({ "spring", "record", "generated" })
+    public String source;
+
+    @Param({ "1000" })
+    public int members;
+
+    private final File file = new File("Benchmark.java");
+    private TreeWalker treeWalker;
+    private FileText text;
+
+
+    @Setup
+    public void setUp() throws Exception {
+        treeWalker = BenchmarkSources.treeWalker(check);
+        text = new FileText(file, BenchmarkSources.get(source, members).lines().toList());
+    }
+
+
+    @Benchmark
+    public SortedSet<Violation> process() throws Exception {
+        return treeWalker.process(file, text);
+    }
+}
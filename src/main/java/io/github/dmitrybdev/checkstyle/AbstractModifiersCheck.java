@@ -3,22 +3,96 @@ package io.github.dmitrybdev.checkstyle;
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.FullIdent;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.text.MessageFormat;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Stream;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 import static com.puppycrawl.tools.checkstyle.api.TokenTypes.*;
-import static java.util.Comparator.comparing;
-import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.joining;
 import static org.apache.commons.lang3.StringUtils.substringBefore;
 
 public class AbstractModifiersCheck extends AbstractCheck {
 
+    private static final Map<String, Set<Integer>> KIND_TOKENS = Map.ofEntries(
+            Map.entry("type", Set.of(VARIABLE_DEF, ANNOTATION_FIELD_DEF, PARAMETER_DEF, RECORD_COMPONENT_DEF, METHOD_DEF)),
+            Map.entry("method", Set.of(METHOD_DEF)),
+            Map.entry("getter", Set.of(METHOD_DEF)),
+            Map.entry("setter", Set.of(METHOD_DEF)),
+            Map.entry("constructor", Set.of(CTOR_DEF)),
+            Map.entry("class", Set.of(CLASS_DEF)),
+            Map.entry("interface", Set.of(INTERFACE_DEF)),
+            Map.entry("enum", Set.of(ENUM_DEF)),
+            Map.entry("record", Set.of(RECORD_DEF)),
+            Map.entry("@interface", Set.of(ANNOTATION_DEF)),
+            Map.entry("field", Set.of(VARIABLE_DEF)),
+            Map.entry("param", Set.of(PARAMETER_DEF, RECORD_COMPONENT_DEF))
+    );
+
+    private static final Set<Integer> DECLARATION_TOKENS = Set.of(
+            CLASS_DEF, INTERFACE_DEF, ENUM_DEF, RECORD_DEF, ANNOTATION_DEF, ENUM_CONSTANT_DEF,
+            VARIABLE_DEF, ANNOTATION_FIELD_DEF, PARAMETER_DEF, RECORD_COMPONENT_DEF, CTOR_DEF, METHOD_DEF
+    );
+
+    private final Modifiers buffer = new Modifiers();
+    private final Map<String, String> annotationNames = new HashMap<>();
+    private final Map<String, String> imports = new HashMap<>();
+    private boolean resolveImports;
+    private @Nullable ModifierCache cache;
+    private final SortedSet<Violation> violations = new TreeSet<>();
+    private @Nullable Consumer<ModifierViolation> violationListener;
+    final ViolationLogger violationLogger = this::logViolation;
+    private static final ViolationLogger NO_VIOLATIONS = (kind, lineNo, colNo, subject, reference) -> {};
+
+    private final FileBudget budget = new FileBudget();
+    private @Nullable String changedLines;
+    private @Nullable BitSet changedLinesOfFile;
+    private @Nullable Baseline baseline;
+    private @Nullable String baselineFile;
+    private CheckEvents.@Nullable FileCheck event;
+    private int extractedModifiers;
+
+
+    /** Receives every violation of the check as a structured record, in addition to the Checkstyle violation. */
+    public void setViolationListener(@Nullable Consumer<ModifierViolation> listener) { violationListener = listener; }
+    public void setBudgetMillis(long budgetMillis) { budget.setMillis(budgetMillis); }
+    public void setBudgetTokens(long budgetTokens) { budget.setTokens(budgetTokens); }
+
+    /**
+     * Checks only the declarations that intersect the lines changed in a unified diff file, or in the git working
+     * tree if the path is a directory. The changes are looked up for every file, so a kept check sees a new diff.
+     */
+    public void setChangedLines(String changedLines) {
+        ChangedLines.load(changedLines);
+        this.changedLines = changedLines;
+    }
+
+    /** Drops the violations recorded in the baseline file, to report only the new ones. */
+    public void setBaseline(String baseline) { this.baseline = Baseline.load(Path.of(baseline)); }
+
+    /**
+     * Names annotations by the single-type imports of the file, so that {@code @Bean} imported from
+     * {@code org.springframework.context.annotation} is {@code @org.springframework.context.annotation.Bean}.
+     */
+    public void setResolveImports(boolean resolveImports) { this.resolveImports = resolveImports; }
+
+
     @Override
     public int[] getDefaultTokens() {
         return getAcceptableTokens();
@@ -38,8 +112,41 @@ public class AbstractModifiersCheck extends AbstractCheck {
         return new int[0];
     }
 
+    protected int[] getTokens(Order order) {
+        if (order.groups().isEmpty()) return getAcceptableTokens();
+
+        return IntStream.of(getAcceptableTokens())
+                .filter(token -> order.groups().stream().anyMatch(group -> group.modifiers().stream()
+                        .map(modifierOrder -> KIND_TOKENS.get(modifierOrder.modifier()))
+                        .allMatch(tokens -> tokens == null || tokens.contains(token))))
+                .toArray();
+    }
+
+
+    /** Whether the template modifier is a kind of declaration, like {@code type}, rather than a word. */
+    static boolean isKind(String modifier) {
+        return KIND_TOKENS.containsKey(modifier);
+    }
+
 
     protected Order parseTemplate(String template) {
+        var event = new CheckEvents.TemplateCompilation();
+        event.begin();
+        event.cached = true;
+        Order order = TemplateCache.get(template, text -> {
+            event.cached = false;
+            return compileTemplate(text);
+        });
+        if (event.shouldCommit()) {
+            event.check = getClass();
+            event.template = template;
+            event.groups = order.groups().size();
+            event.commit();
+        }
+        return order;
+    }
+
+    static Order compileTemplate(String template) {
         int groupOrder = 0, modifierOrder = 0;
         List<GroupOrder> groupOrders = new ArrayList<>();
         for (String line : template.split("\\s{3,}|,")) {
@@ -53,7 +160,7 @@ public class AbstractModifiersCheck extends AbstractCheck {
                 modifier = substringBefore(modifier, "(");
                 modifierOrders.add(new ModifierOrder(modifier.trim(), hasArgs, groupOrder, modifierOrder++));
             }
-            groupOrders.add(new GroupOrder(modifierOrders, groupOrder));
+            groupOrders.add(new GroupOrder(List.copyOf(modifierOrders), groupOrder));
             groupOrder++;
         }
 
@@ -61,33 +168,243 @@ public class AbstractModifiersCheck extends AbstractCheck {
     }
 
 
+    @Override
+    public void beginTree(DetailAST rootAST) {
+        cache = ModifierCache.begin(rootAST, resolveImports);
+        violations.clear();
+        imports.clear();
+        if (resolveImports) readImports(rootAST);
+
+        extractedModifiers = 0;
+        event = CheckEvents.isRecording() ? new CheckEvents.FileCheck() : null;
+        if (event != null) event.begin();
+        budget.start();
+        changedLinesOfFile = changedLines != null ? ChangedLines.load(changedLines).get(getFilePath()) : null;
+        if (baseline != null) baseline = baseline.reload();
+        baselineFile = baseline != null ? baseline.relativize(getFilePath()) : null;
+    }
+
+    @Override
+    public void finishTree(DetailAST rootAST) {
+        ModifierCache.finish(rootAST, resolveImports);
+        cache = null;
+
+        if (event != null && event.shouldCommit()) {
+            event.check = getClass();
+            event.id = getId();
+            event.file = getFilePath();
+            event.tokens = (int) budget.visited();
+            event.modifiers = extractedModifiers;
+            event.violations = violations.size();
+            event.budgetExceeded = budget.isExceeded();
+            event.commit();
+        }
+        event = null;
+    }
+
     @Override
     public void visitToken(DetailAST ast) {
         List<Modifier> modifiers = getModifiers(ast);
         if (modifiers == null) return;
 
-        log(
-                ast.getLineNo(), ast.getColumnNo(),
-                modifiers.stream()
+        Object description = new Object() {
+            @Override
+            public String toString() {
+                return modifiers.stream()
                         .map(modifier -> "%d:%d %s".formatted(modifier.lineNo(), modifier.colNo(), modifier.toString()))
-                        .collect(joining(", "))
-        );
+                        .collect(joining(", "));
+            }
+        };
+        logViolation(ast.getLineNo(), ast.getColumnNo(), getSeverityLevel(), "{0}", null, getId(), getClass(),
+                description);
+    }
+
+
+    /** Whether any line of the token, from its first modifier to its end, changed or changes are not tracked. */
+    protected boolean isChanged(DetailAST ast) {
+        return isChanged(ast.getLineNo(), getEndLineNo(ast));
+    }
+
+    protected boolean isChanged(int startLineNo, int endLineNo) {
+        return ChangedLines.intersects(changedLinesOfFile, startLineNo, endLineNo);
+    }
+
+    /** Logger of the violations found at the token, which drops them if the token did not change. */
+    ViolationLogger getViolationLogger(DetailAST ast) {
+        return isChanged(ast) ? getDeclarationLogger(ast) : NO_VIOLATIONS;
+    }
+
+    /**
+     * Logger of the violations found at the token by comparing it with the reference, which drops them if neither
+     * changed, so that a declaration inserted out of order is reported at the unchanged one it displaces.
+     */
+    ViolationLogger getViolationLogger(DetailAST ast, @Nullable DetailAST reference) {
+        return isChanged(ast) || reference != null && isChanged(reference) ? getDeclarationLogger(ast) : NO_VIOLATIONS;
+    }
+
+    /** Logger of the violations found at the declaration, which drops the ones recorded in the baseline. */
+    ViolationLogger getDeclarationLogger(DetailAST declaration) {
+        Baseline baseline = this.baseline;
+        String file = baselineFile;
+        if (baseline == null || file == null) return violationLogger;
+
+        return (kind, lineNo, colNo, subject, reference) -> {
+            String names = kind == ModifierViolation.Kind.INTERVAL ? "" : subject + " " + reference;
+            if (!baseline.isKnown(file, getSignature(declaration), kind, names)) {
+                violationLogger.log(kind, lineNo, colNo, subject, reference);
+            }
+        };
+    }
+
+    /**
+     * Signature of the declaration that does not depend on its position: the names of the enclosing types,
+     * methods with the erasures of their parameter types, and the declaration itself, like
+     * {@code Outer.Inner.method(String, int[]).param}.
+     */
+    static String getSignature(DetailAST ast) {
+        List<DetailAST> declarations = new ArrayList<>();
+        for (DetailAST node = ast; node != null; node = node.getParent()) {
+            if (node.findFirstToken(IDENT) != null && DECLARATION_TOKENS.contains(node.getType())) {
+                declarations.add(node);
+            }
+        }
+
+        StringBuilder signature = new StringBuilder();
+        for (int i = declarations.size() - 1; i >= 0; i--) {
+            DetailAST declaration = declarations.get(i);
+            if (!signature.isEmpty()) signature.append('.');
+            signature.append(declaration.findFirstToken(IDENT).getText());
+            if (declaration.getType() != METHOD_DEF && declaration.getType() != CTOR_DEF) continue;
+
+            signature.append('(');
+            for (DetailAST param = declaration.findFirstToken(PARAMETERS).getFirstChild(); param != null;
+                    param = param.getNextSibling()) {
+                if (param.getType() != PARAMETER_DEF) continue;
+
+                if (signature.charAt(signature.length() - 1) != '(') signature.append(", ");
+                appendErasure(param.findFirstToken(TYPE), signature);
+                if (param.findFirstToken(ELLIPSIS) != null) signature.append("...");
+            }
+            signature.append(')');
+        }
+        return signature.toString();
+    }
+
+    private static void appendErasure(DetailAST ast, StringBuilder signature) {
+        switch (ast.getType()) {
+            case TYPE_ARGUMENTS, ANNOTATIONS, ANNOTATION -> {}
+            case DOT -> {
+                appendErasure(ast.getFirstChild(), signature);
+                signature.append('.');
+                appendErasure(ast.getFirstChild().getNextSibling(), signature);
+            }
+            case ARRAY_DECLARATOR -> signature.append("[]");
+            default -> {
+                if (ast.getFirstChild() == null) signature.append(ast.getText());
+                for (DetailAST child = ast.getFirstChild(); child != null; child = child.getNextSibling()) {
+                    appendErasure(child, signature);
+                }
+            }
+        }
+    }
+
+    /**
+     * Line of the end of the token: the closing brace of the body for methods, the line of the last child for
+     * other tokens, which is the opening brace for types, and the line of the token itself for braces and commas.
+     */
+    static int getEndLineNo(DetailAST ast) {
+        if (ast.getType() == LCURLY || ast.getType() == COMMA || ast.getLastChild() == null) return ast.getLineNo();
+        if (ast.getType() == METHOD_DEF && ast.getLastChild().getType() == SLIST) {
+            return ast.getLastChild().getLastChild().getLineNo();
+        }
+        return ast.getLastChild().getLineNo();
+    }
+
+
+    @Override
+    public SortedSet<Violation> getViolations() {
+        SortedSet<Violation> all = super.getViolations();
+        all.addAll(violations);
+        return all;
+    }
+
+    private void logViolation(ModifierViolation.Kind kind, int lineNo, int colNo, Object subject, Object reference) {
+        if (violationListener != null) {
+            violationListener.accept(new ModifierViolation(kind, lineNo, colNo, subject, reference));
+        }
+        AbstractModifiersCheck reporter = getReporter(kind);
+        String id = reporter.getId() != null ? reporter.getId() : getId();
+        logViolation(lineNo, colNo, getSeverityLevel(), kind.key(), getCustomMessage(kind), id, reporter.getClass(),
+                subject, reference);
+    }
+
+    /** Check whose class and id the violations of the kind are reported under, so that filters match them. */
+    AbstractModifiersCheck getReporter(ModifierViolation.Kind kind) {
+        return this;
+    }
+
+    /** Reports, at info level whatever the severity of the check, that the rest of the file is not checked. */
+    private void logBudgetViolation(DetailAST ast) {
+        String file = getFilePath();
+        if (violationListener != null) {
+            violationListener.accept(new ModifierViolation(
+                    ModifierViolation.Kind.BUDGET, ast.getLineNo(), ast.getColumnNo(), file, budget.toString()));
+        }
+        logViolation(ast.getLineNo(), ast.getColumnNo(), SeverityLevel.INFO, ModifierViolation.Kind.BUDGET.key(),
+                getCustomMessage(ModifierViolation.Kind.BUDGET), getId(), getClass(), file, budget.toString());
+    }
+
+    /** Custom message of the kind, by its key or, as configured before the keys, by its message. */
+    private @Nullable String getCustomMessage(ModifierViolation.Kind kind) {
+        String message = getCustomMessages().get(kind.key());
+        return message != null ? message : getCustomMessages().get(kind.message());
+    }
+
+    /**
+     * Same as {@link #log(int, int, String, Object...)}, which copies every line of the file to expand tabs. The
+     * arguments are formatted only when the message is.
+     */
+    private void logViolation(
+            int lineNo, int colNo, SeverityLevel severity, String key, @Nullable String customMessage,
+            @Nullable String id, Class<?> source, Object... args
+    ) {
+        String line = getLine(lineNo - 1);
+        violations.add(new Violation(
+                lineNo, 1 + CommonUtil.lengthExpandedTabs(line, colNo, getTabWidth()),
+                getMessageBundle(), key, args, severity, id, source, customMessage
+        ));
     }
 
 
     protected @Nullable List<Modifier> getModifiers(DetailAST ast) {
-        if (ast.getParent().getType() == SLIST) return null;
+        Modifiers modifiers = extractModifiers(ast);
+        return modifiers != null ? modifiers.toList() : null;
+    }
+
+    protected @Nullable Modifiers extractModifiers(DetailAST ast) {
+        return extractModifiers(ast, buffer) ? buffer : null;
+    }
+
+    protected boolean extractModifiers(DetailAST ast, Modifiers modifiers) {
+        modifiers.clear();
+        if (budget.isExceeded()) return false;
+        if (!budget.visit()) {
+            logBudgetViolation(ast);
+            return false;
+        }
+        if (ast.getParent().getType() == SLIST) return false;
+        if (cache != null && cache.get(ast, modifiers)) return true;
 
-        return Stream.of(
-                Stream.iterate(getModifiersAst(ast), Objects::nonNull, DetailAST::getNextSibling),
-                Stream.ofNullable(ast.findFirstToken(TYPE)),
-                Stream.of(ast),
-                Stream.ofNullable(ast.findFirstToken(IDENT))
-        )
-                .flatMap(identity())
-                .map(this::getModifier)
-                .filter(Objects::nonNull)
-                .toList();
+        for (DetailAST modifier = getModifiersAst(ast); modifier != null; modifier = modifier.getNextSibling()) {
+            addModifier(modifier, modifiers);
+        }
+        addModifier(ast.findFirstToken(TYPE), modifiers);
+        addModifier(ast, modifiers);
+        addModifier(ast.findFirstToken(IDENT), modifiers);
+        extractedModifiers += modifiers.size();
+
+        if (cache != null) cache.put(ast, modifiers);
+        return true;
     }
 
     private DetailAST getModifiersAst(DetailAST ast) {
@@ -97,33 +414,68 @@ public class AbstractModifiersCheck extends AbstractCheck {
     }
 
 
-    private @Nullable Modifier getModifier(@Nullable DetailAST ast) {
-        if (ast == null) return null;
-        if (ast.getType() == ANNOTATION) return getAnnotation(ast);
-        if (ast.getType() == TYPE) return new Modifier("type", ast);
-        if (ast.getType() == METHOD_DEF) return new Modifier("method", ast);
-        if (ast.getType() == IDENT && isGetter(ast)) return new Modifier("getter", ast);
-        if (ast.getType() == IDENT && isSetter(ast)) return new Modifier("setter", ast);
-        if (ast.getType() == CTOR_DEF) return new Modifier("constructor", ast);
-        if (ast.getType() == CLASS_DEF) return new Modifier("class", ast);
-        if (ast.getType() == INTERFACE_DEF) return new Modifier("interface", ast);
-        if (ast.getType() == ENUM_DEF) return new Modifier("enum", ast);
-        if (ast.getType() == RECORD_DEF) return new Modifier("record", ast);
-        if (ast.getType() == ANNOTATION_DEF) return new Modifier("@interface", ast);
-        if (ast.getType() == VARIABLE_DEF) return new Modifier("field", ast);
-        if (ast.getType() == PARAMETER_DEF) return new Modifier("param", ast);
-        if (ast.getType() == RECORD_COMPONENT_DEF) return new Modifier("param", ast);
-        if (ast.getParent().getType() == MODIFIERS) return new Modifier(ast.getText(), ast);
+    private void addModifier(@Nullable DetailAST ast, Modifiers modifiers) {
+        if (ast == null) return;
+        if (ast.getType() == ANNOTATION) {
+            DetailAST args = ast.getFirstChild().getNextSibling().getNextSibling();
+            modifiers.add(getAnnotationName(ast), args != null, ast.getLineNo(), ast.getColumnNo());
+            return;
+        }
+
+        String text = getModifierText(ast);
+        if (text != null) modifiers.add(text, false, ast.getLineNo(), ast.getColumnNo());
+    }
+
+    private @Nullable String getModifierText(DetailAST ast) {
+        if (ast.getType() == TYPE) return "type";
+        if (ast.getType() == METHOD_DEF) return "method";
+        if (ast.getType() == IDENT && isGetter(ast)) return "getter";
+        if (ast.getType() == IDENT && isSetter(ast)) return "setter";
+        if (ast.getType() == CTOR_DEF) return "constructor";
+        if (ast.getType() == CLASS_DEF) return "class";
+        if (ast.getType() == INTERFACE_DEF) return "interface";
+        if (ast.getType() == ENUM_DEF) return "enum";
+        if (ast.getType() == RECORD_DEF) return "record";
+        if (ast.getType() == ANNOTATION_DEF) return "@interface";
+        if (ast.getType() == VARIABLE_DEF) return "field";
+        if (ast.getType() == PARAMETER_DEF) return "param";
+        if (ast.getType() == RECORD_COMPONENT_DEF) return "param";
+        if (ast.getParent().getType() == MODIFIERS) return ast.getText();
         return null;
     }
 
-    private Modifier getAnnotation(DetailAST ast) {
-        DetailAST args = ast.getFirstChild().getNextSibling().getNextSibling();
-        return new Modifier(
-                "@" + FullIdent.createFullIdent(ast.getFirstChild().getNextSibling()).getText(),
-                args != null,
-                ast.getLineNo(), ast.getColumnNo()
-        );
+    private String getAnnotationName(DetailAST ast) {
+        DetailAST name = ast.getFirstChild().getNextSibling();
+        if (name.getType() == IDENT) {
+            String imported = imports.get(name.getText());
+            return imported != null ? imported : internAnnotationName(name.getText());
+        }
+
+        String text = FullIdent.createFullIdent(name).getText();
+        if (!resolveImports) return "@" + text;
+
+        String imported = imports.get(substringBefore(text, "."));
+        if (imported == null) return internAnnotationName(text);
+        return internAnnotationName(imported.substring(1) + text.substring(text.indexOf('.')));
+    }
+
+    private String internAnnotationName(String name) {
+        return annotationNames.computeIfAbsent(name, text -> "@" + text);
+    }
+
+    /**
+     * Maps the simple names of the single-type imports of the file to their qualified annotation names. Names
+     * imported on demand, from {@code java.lang} or from the same package are left as written.
+     */
+    private void readImports(DetailAST rootAST) {
+        for (DetailAST ast = rootAST.getFirstChild(); ast != null; ast = ast.getNextSibling()) {
+            if (ast.getType() != IMPORT) continue;
+
+            String name = FullIdent.createFullIdent(ast.getFirstChild()).getText();
+            if (name.endsWith(".*")) continue;
+
+            imports.put(name.substring(name.lastIndexOf('.') + 1), internAnnotationName(name));
+        }
     }
 
 
@@ -155,6 +507,50 @@ public class AbstractModifiersCheck extends AbstractCheck {
     }
 
 
+    @FunctionalInterface
+    interface ViolationLogger {
+        void log(ModifierViolation.Kind kind, int lineNo, int colNo, Object subject, Object reference);
+    }
+
+    /**
+     * Violation of a check before it is rendered to a message. The subject is what is misplaced and the reference
+     * is what it is compared with: {@link Modifier}s for the modifier kinds, {@link GroupOrder}s for
+     * {@link Kind#DECLARATION_ORDER}, the actual and the required number of lines for {@link Kind#INTERVAL}, and the
+     * file and the budget for {@link Kind#BUDGET}.
+     */
+    public record ModifierViolation(Kind kind, int lineNo, int colNo, Object subject, Object reference) {
+        public String getMessage() {
+            return new MessageFormat(kind.message(), Locale.ROOT).format(new Object[] { subject, reference });
+        }
+
+        /** Kind of violation, with the key of its message in the bundle of the checks. */
+        public enum Kind {
+            ORDER("modifier.order", "{0} must be placed before {1}"),
+            SAME_LINE("modifier.same.line", "{0} must be placed on the same line with {1}"),
+            NEW_LINE("modifier.new.line", "{0} must be placed on the new line after {1}"),
+            DECLARATION_ORDER("declaration.order", "{0} must be placed before {1}"),
+            INTERVAL("boundary.interval", "Current interval ({0} lines) is less than required: {1}"),
+            BUDGET("file.budget", "{0} exceeds the budget of {1}, the rest of the file is not checked");
+
+            private final String key;
+            private final String message;
+
+            Kind(String key, String message) {
+                this.key = key;
+                this.message = message;
+            }
+
+            public String key() {
+                return key;
+            }
+
+            public String message() {
+                return message;
+            }
+        }
+    }
+
+
     public record Modifier(String text, boolean hasArgs, int lineNo, int colNo) {
         public Modifier(String text, DetailAST ast) {
             this(text, false, ast.getLineNo(), ast.getColumnNo());
@@ -167,31 +563,319 @@ public class AbstractModifiersCheck extends AbstractCheck {
     }
 
 
-    public record Order(List<GroupOrder> groups) {
+    public static final class Modifiers {
+        private String[] texts = new String[8];
+        private boolean[] hasArgs = new boolean[8];
+        private int[] lineNos = new int[8];
+        private int[] colNos = new int[8];
+        private int[] symbols = new int[8];
+        private int size;
+
+        public static Modifiers of(List<Modifier> modifiers) {
+            Modifiers result = new Modifiers();
+            for (Modifier modifier : modifiers) {
+                result.add(modifier.text(), modifier.hasArgs(), modifier.lineNo(), modifier.colNo());
+            }
+            return result;
+        }
+
+        public int size() { return size; }
+        public String text(int index) { return texts[index]; }
+        public boolean hasArgs(int index) { return hasArgs[index]; }
+        public int lineNo(int index) { return lineNos[index]; }
+        public int colNo(int index) { return colNos[index]; }
+        int symbol(int index) { return symbols[index]; }
+
+        public String toString(int index) {
+            return hasArgs[index] ? texts[index] + "()" : texts[index];
+        }
+
+        public Modifier get(int index) {
+            return new Modifier(texts[index], hasArgs[index], lineNos[index], colNos[index]);
+        }
+
+        public List<Modifier> toList() {
+            List<Modifier> modifiers = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) modifiers.add(get(i));
+            return modifiers;
+        }
+
+        void clear() {
+            Arrays.fill(texts, 0, size, null);
+            size = 0;
+        }
+
+        void add(String text, boolean hasArgs, int lineNo, int colNo) {
+            ensureCapacity(size + 1);
+            texts[size] = text;
+            this.hasArgs[size] = hasArgs;
+            lineNos[size] = lineNo;
+            colNos[size] = colNo;
+            symbols[size] = Symbols.find(text);
+            size++;
+        }
+
+        void addAll(Modifiers source, int from, int to) {
+            ensureCapacity(size + to - from);
+            System.arraycopy(source.texts, from, texts, size, to - from);
+            System.arraycopy(source.hasArgs, from, hasArgs, size, to - from);
+            System.arraycopy(source.lineNos, from, lineNos, size, to - from);
+            System.arraycopy(source.colNos, from, colNos, size, to - from);
+            System.arraycopy(source.symbols, from, symbols, size, to - from);
+            size += to - from;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= texts.length) return;
+
+            int newCapacity = Math.max(capacity, texts.length * 2);
+            texts = Arrays.copyOf(texts, newCapacity);
+            hasArgs = Arrays.copyOf(hasArgs, newCapacity);
+            lineNos = Arrays.copyOf(lineNos, newCapacity);
+            colNos = Arrays.copyOf(colNos, newCapacity);
+            symbols = Arrays.copyOf(symbols, newCapacity);
+        }
+    }
+
+
+    /**
+     * Compiled template. Modifiers are looked up by their interned symbol, and wildcard entries, like
+     * {@code @Json*}, by walking a {@link PrefixTrie} along the text of the modifier: an exact entry wins over any
+     * wildcard, and a longer wildcard prefix over a shorter one.
+     */
+    public static final class Order {
+        private static final int[] NO_GROUPS = new int[0];
+
+        private final List<GroupOrder> groups;
+        private final ModifierOrder[] ranks;
+        private final ModifierOrder[] ranksWithArgs;
+        private final @Nullable PrefixTrie wildcards;
+        private final ModifierOrder[] wildcardRanks;
+        private final ModifierOrder[] wildcardRanksWithArgs;
+        private final int[] wildcardRequirements;
+
+        private final int[] requirements;
+        private final int[][] groupsByRequirement;
+        private final int[] unconditionalGroups;
+        private final long[][] groupMasks;
+        private final int requirementWords;
+
+        public Order(List<GroupOrder> groups) {
+            this.groups = List.copyOf(groups);
+
+            int symbols = groups.stream()
+                    .flatMap(group -> group.modifiers().stream())
+                    .filter(modifierOrder -> !modifierOrder.isWildcard())
+                    .mapToInt(modifierOrder -> Symbols.intern(modifierOrder.modifier()) + 1)
+                    .max()
+                    .orElse(0);
+            this.ranks = new ModifierOrder[symbols];
+            this.ranksWithArgs = new ModifierOrder[symbols];
+            this.requirements = new int[symbols * 2];
+            Arrays.fill(requirements, -1);
+
+            List<String> prefixes = groups.stream()
+                    .flatMap(group -> group.modifiers().stream())
+                    .filter(ModifierOrder::isWildcard)
+                    .map(ModifierOrder::prefix)
+                    .distinct()
+                    .toList();
+            this.wildcards = prefixes.isEmpty() ? null : new PrefixTrie(prefixes);
+            this.wildcardRanks = new ModifierOrder[prefixes.size()];
+            this.wildcardRanksWithArgs = new ModifierOrder[prefixes.size()];
+            this.wildcardRequirements = new int[prefixes.size() * 2];
+            Arrays.fill(wildcardRequirements, -1);
+
+            int requirementCount = 0;
+            for (GroupOrder group : groups) {
+                for (ModifierOrder modifierOrder : group.modifiers()) {
+                    boolean wildcard = modifierOrder.isWildcard();
+                    int key = wildcard
+                            ? prefixes.indexOf(modifierOrder.prefix())
+                            : Symbols.find(modifierOrder.modifier());
+                    ModifierOrder[] table = wildcard
+                            ? modifierOrder.hasArgs() ? wildcardRanksWithArgs : wildcardRanks
+                            : modifierOrder.hasArgs() ? ranksWithArgs : ranks;
+                    if (table[key] == null) table[key] = modifierOrder;
+
+                    int[] keyRequirements = wildcard ? wildcardRequirements : requirements;
+                    int requirement = requirementIndex(key, modifierOrder.hasArgs());
+                    if (keyRequirements[requirement] < 0) keyRequirements[requirement] = requirementCount++;
+                }
+            }
+
+            List<List<Integer>> groupsByRequirement = new ArrayList<>();
+            for (int i = 0; i < requirementCount; i++) groupsByRequirement.add(new ArrayList<>());
+            List<Integer> unconditionalGroups = new ArrayList<>();
+            this.requirementWords = (requirementCount + 63) >>> 6;
+            this.groupMasks = new long[groups.size()][requirementWords];
+            for (int group = 0; group < groups.size(); group++) {
+                if (groups.get(group).modifiers().isEmpty()) unconditionalGroups.add(group);
+
+                for (ModifierOrder modifierOrder : groups.get(group).modifiers()) {
+                    int requirement = modifierOrder.isWildcard()
+                            ? wildcardRequirements[requirementIndex(prefixes.indexOf(modifierOrder.prefix()),
+                                    modifierOrder.hasArgs())]
+                            : requirements[requirementIndex(Symbols.find(modifierOrder.modifier()),
+                                    modifierOrder.hasArgs())];
+                    if (isSet(groupMasks[group], requirement)) continue;
+
+                    groupMasks[group][requirement >>> 6] |= 1L << requirement;
+                    groupsByRequirement.get(requirement).add(group);
+                }
+            }
+            this.groupsByRequirement = groupsByRequirement.stream()
+                    .map(Order::toArray)
+                    .toArray(int[][]::new);
+            this.unconditionalGroups = toArray(unconditionalGroups);
+        }
+
+        public List<GroupOrder> groups() {
+            return groups;
+        }
+
         public @Nullable GroupOrder getOrder(List<Modifier> modifiers) {
-            return groups.stream()
-                    .filter(group -> group.matches(modifiers))
-                    .max(comparing(group -> group.modifiers().size()))
-                    .orElse(null);
+            return getOrder(Modifiers.of(modifiers));
+        }
+
+        public @Nullable GroupOrder getOrder(Modifiers modifiers) {
+            long[] present = new long[requirementWords];
+            for (int i = 0; i < modifiers.size(); i++) {
+                setRequirement(present, getRequirement(modifiers.symbol(i), false));
+                if (modifiers.hasArgs(i)) setRequirement(present, getRequirement(modifiers.symbol(i), true));
+                if (wildcards != null) addWildcardRequirements(present, modifiers.text(i), modifiers.hasArgs(i));
+            }
+
+            int group = findGroup(present);
+            return group >= 0 ? groups.get(group) : null;
         }
 
         public @Nullable ModifierOrder getOrder(Modifier modifier) {
-            if (!modifier.hasArgs()) return getOrder(modifier, true).orElse(null);
-            return getOrder(modifier, false)
-                    .or(() -> getOrder(modifier, true))
-                    .orElse(null);
+            return getOrder(modifier.text(), Symbols.find(modifier.text()), modifier.hasArgs());
         }
 
-        private Optional<ModifierOrder> getOrder(Modifier modifier, boolean ignoreArgs) {
-            return groups.stream()
-                    .flatMap(group -> group.getOrder(modifier, ignoreArgs).stream())
-                    .findFirst();
+        public @Nullable ModifierOrder getOrder(Modifiers modifiers, int index) {
+            return getOrder(modifiers.text(index), modifiers.symbol(index), modifiers.hasArgs(index));
+        }
+
+        private @Nullable ModifierOrder getOrder(String text, int symbol, boolean hasArgs) {
+            if (symbol >= 0 && symbol < ranks.length) {
+                if (hasArgs && ranksWithArgs[symbol] != null) return ranksWithArgs[symbol];
+                if (ranks[symbol] != null) return ranks[symbol];
+            }
+            if (wildcards == null) return null;
+
+            ModifierOrder longest = null;
+            for (int state = PrefixTrie.ROOT, i = 0; state != PrefixTrie.NONE;
+                    state = i < text.length() ? wildcards.next(state, text.charAt(i++)) : PrefixTrie.NONE) {
+                int prefix = wildcards.prefix(state);
+                if (prefix == PrefixTrie.NONE) continue;
+
+                if (hasArgs && wildcardRanksWithArgs[prefix] != null) longest = wildcardRanksWithArgs[prefix];
+                else if (wildcardRanks[prefix] != null) longest = wildcardRanks[prefix];
+            }
+            return longest;
         }
 
         public boolean matches(@Nullable List<Modifier> modifiers) {
+            return matches(modifiers != null ? Modifiers.of(modifiers) : null);
+        }
+
+        public boolean matches(@Nullable Modifiers modifiers) {
             if (modifiers == null) return false;
-            if (groups.isEmpty()) return true;
-            return groups.stream().anyMatch(group -> group.matches(modifiers));
+            if (groups.isEmpty() || unconditionalGroups.length > 0) return true;
+
+            long[] present = new long[requirementWords];
+            for (int i = 0; i < modifiers.size(); i++) {
+                if (completesGroup(present, getRequirement(modifiers.symbol(i), false))) return true;
+                if (modifiers.hasArgs(i) && completesGroup(present, getRequirement(modifiers.symbol(i), true))) {
+                    return true;
+                }
+                if (wildcards != null && addWildcardRequirements(present, modifiers.text(i), modifiers.hasArgs(i))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /** Adds the requirements of every wildcard matching the text, and tells whether they complete a group. */
+        private boolean addWildcardRequirements(long[] present, String text, boolean hasArgs) {
+            boolean completes = false;
+            for (int state = PrefixTrie.ROOT, i = 0; state != PrefixTrie.NONE;
+                    state = i < text.length() ? wildcards.next(state, text.charAt(i++)) : PrefixTrie.NONE) {
+                int prefix = wildcards.prefix(state);
+                if (prefix == PrefixTrie.NONE) continue;
+
+                completes |= completesGroup(present, wildcardRequirements[requirementIndex(prefix, false)]);
+                if (hasArgs) completes |= completesGroup(present, wildcardRequirements[requirementIndex(prefix, true)]);
+            }
+            return completes;
+        }
+
+        private int getRequirement(int symbol, boolean hasArgs) {
+            if (symbol < 0 || symbol >= ranks.length) return -1;
+            return requirements[requirementIndex(symbol, hasArgs)];
+        }
+
+        private boolean completesGroup(long[] present, int requirement) {
+            if (requirement < 0 || isSet(present, requirement)) return false;
+
+            setRequirement(present, requirement);
+            for (int group : groupsByRequirement[requirement]) {
+                if (isSubset(groupMasks[group], present)) return true;
+            }
+            return false;
+        }
+
+        private int findGroup(long[] present) {
+            int best = unconditionalGroups.length > 0 ? unconditionalGroups[0] : -1;
+            for (int word = 0; word < present.length; word++) {
+                for (long bits = present[word]; bits != 0; bits &= bits - 1) {
+                    int requirement = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    for (int group : groupsByRequirement[requirement]) {
+                        if (isSubset(groupMasks[group], present) && (best < 0 || isLongerMatch(group, best))) {
+                            best = group;
+                        }
+                    }
+                }
+            }
+            return best;
+        }
+
+        private boolean isLongerMatch(int group, int best) {
+            int size = groups.get(group).modifiers().size();
+            int bestSize = groups.get(best).modifiers().size();
+            return size > bestSize || size == bestSize && group < best;
+        }
+
+        private static boolean isSubset(long[] mask, long[] present) {
+            for (int word = 0; word < mask.length; word++) {
+                if ((mask[word] & ~present[word]) != 0) return false;
+            }
+            return true;
+        }
+
+        private static int requirementIndex(int symbol, boolean hasArgs) {
+            return symbol * 2 + (hasArgs ? 1 : 0);
+        }
+
+        private static void setRequirement(long[] present, int requirement) {
+            if (requirement >= 0) present[requirement >>> 6] |= 1L << requirement;
+        }
+
+        private static boolean isSet(long[] mask, int requirement) {
+            return (mask[requirement >>> 6] & 1L << requirement) != 0;
+        }
+
+        private static int[] toArray(List<Integer> values) {
+            return values.isEmpty() ? NO_GROUPS : values.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        @Override
+        public String toString() {
+            return groups.stream()
+                    .map(GroupOrder::toString)
+                    .collect(joining(", "));
         }
     }
 
@@ -217,14 +901,32 @@ public class AbstractModifiersCheck extends AbstractCheck {
 
     public record ModifierOrder(String modifier, boolean hasArgs, int groupOrder, int order) {
         public boolean matches(Modifier modifier, boolean ignoreArgs) {
-            if (ignoreArgs && !hasArgs) return this.modifier.equals(modifier.text());
-            return this.modifier.equals(modifier.text()) && hasArgs == modifier.hasArgs();
+            return matches(modifier.text(), modifier.hasArgs(), ignoreArgs);
+        }
+
+        public boolean matches(Modifiers modifiers, int index, boolean ignoreArgs) {
+            return matches(modifiers.text(index), modifiers.hasArgs(index), ignoreArgs);
+        }
+
+        private boolean matches(String text, boolean hasArgs, boolean ignoreArgs) {
+            boolean matches = isWildcard() ? text.startsWith(prefix()) : modifier.equals(text);
+            if (ignoreArgs && !this.hasArgs) return matches;
+            return matches && this.hasArgs == hasArgs;
         }
 
         public boolean matches(List<Modifier> modifiers) {
             return modifiers.stream().anyMatch(modifier -> matches(modifier, true));
         }
 
+        /** Whether the entry ends with {@code *} and matches every modifier that starts with the rest of it. */
+        public boolean isWildcard() {
+            return modifier.endsWith("*");
+        }
+
+        public String prefix() {
+            return isWildcard() ? modifier.substring(0, modifier.length() - 1) : modifier;
+        }
+
         @Override
         public String toString() {
             return modifier + (hasArgs ? "()" : "");
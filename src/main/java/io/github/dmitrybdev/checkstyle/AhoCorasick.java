@@ -0,0 +1,93 @@
+package io.github.dmitrybdev.checkstyle;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.function.IntPredicate;
+
+/**
+ * Finds all occurrences of a set of words in a text in one pass. The automaton is a table of transitions by
+ * character class, where the characters that occur in no word share one class leading back to the root.
+ */
+final class AhoCorasick {
+
+    private final int[] asciiClasses = new int[128];
+    private final Map<Character, Integer> otherClasses = new HashMap<>();
+    private final int[][] transitions;
+    private final int[][] outputs;
+
+
+    AhoCorasick(List<String> words) {
+        int classes = 1;
+        for (String word : words) {
+            for (int i = 0; i < word.length(); i++) {
+                char c = word.charAt(i);
+                if (getClass(c) != 0) continue;
+
+                if (c < 128) asciiClasses[c] = classes++;
+                else otherClasses.put(c, classes++);
+            }
+        }
+
+        List<int[]> next = new ArrayList<>();
+        List<List<Integer>> matches = new ArrayList<>();
+        next.add(new int[classes]);
+        matches.add(new ArrayList<>());
+        for (int word = 0; word < words.size(); word++) {
+            int state = 0;
+            for (int i = 0; i < words.get(word).length(); i++) {
+                int characterClass = getClass(words.get(word).charAt(i));
+                if (next.get(state)[characterClass] == 0) {
+                    next.get(state)[characterClass] = next.size();
+                    next.add(new int[classes]);
+                    matches.add(new ArrayList<>());
+                }
+                state = next.get(state)[characterClass];
+            }
+            matches.get(state).add(word);
+        }
+
+        int[] fail = new int[next.size()];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int characterClass = 1; characterClass < classes; characterClass++) {
+            if (next.get(0)[characterClass] != 0) queue.add(next.get(0)[characterClass]);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            matches.get(state).addAll(matches.get(fail[state]));
+            for (int characterClass = 1; characterClass < classes; characterClass++) {
+                int child = next.get(state)[characterClass];
+                if (child != 0) {
+                    fail[child] = next.get(fail[state])[characterClass];
+                    queue.add(child);
+                }
+                else {
+                    next.get(state)[characterClass] = next.get(fail[state])[characterClass];
+                }
+            }
+        }
+
+        this.transitions = next.toArray(int[][]::new);
+        this.outputs = matches.stream().map(state -> state.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
+    }
+
+
+    /** Passes the index of every word found to the consumer, until it returns false. */
+    void scan(CharSequence text, IntPredicate consumer) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = transitions[state][getClass(text.charAt(i))];
+            for (int word : outputs[state]) {
+                if (!consumer.test(word)) return;
+            }
+        }
+    }
+
+    private int getClass(char c) {
+        return c < 128 ? asciiClasses[c] : otherClasses.getOrDefault(c, 0);
+    }
+}
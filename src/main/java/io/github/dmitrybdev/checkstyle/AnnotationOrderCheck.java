@@ -1,48 +1,89 @@
 package io.github.dmitrybdev.checkstyle;
 
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.ModifierViolation.Kind;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static com.puppycrawl.tools.checkstyle.api.TokenTypes.*;
 
 public class AnnotationOrderCheck extends AbstractModifiersCheck {
 
+    private static final Order NO_TEMPLATE = new Order(List.of());
+    private static final ModifierOrder NOT_FOUND = new ModifierOrder("", false, -1, -1);
+
     private Order typeTemplate = new Order(List.of());
     private Order fieldTemplate = new Order(List.of());
     private Order methodTemplate = new Order(List.of());
+    private boolean prefilter;
+    private @Nullable TemplateFilter filter;
+    private long candidates = -1;
 
 
     public void setTypeTemplate(String typeTemplate) { this.typeTemplate = parseTemplate(typeTemplate); }
     public void setFieldTemplate(String fieldTemplate) { this.fieldTemplate = parseTemplate(fieldTemplate); }
     public void setMethodTemplate(String methodTemplate) { this.methodTemplate = parseTemplate(methodTemplate); }
+    public void setPrefilter(boolean prefilter) { this.prefilter = prefilter; }
+
+
+    @Override
+    public int[] getDefaultTokens() {
+        return IntStream.of(getAcceptableTokens())
+                .filter(token -> !getTemplate(token).groups().isEmpty())
+                .toArray();
+    }
+
+    @Override
+    public void beginTree(DetailAST rootAST) {
+        super.beginTree(rootAST);
+        if (!prefilter) return;
+
+        if (filter == null) filter = new TemplateFilter(List.of(typeTemplate, fieldTemplate, methodTemplate));
+        candidates = filter.scan(getLines());
+    }
 
+    @Override
+    public void finishTree(DetailAST rootAST) {
+        super.finishTree(rootAST);
+        candidates = -1;
+    }
 
     @Override
     public void visitToken(DetailAST ast) {
-        List<Modifier> modifiers = getModifiers(ast);
+        Order template = getTemplate(ast.getType());
+        if (template.groups().isEmpty() || !isCandidate(template) || !isChanged(ast)) return;
+
+        Modifiers modifiers = extractModifiers(ast);
         if (modifiers == null) return;
 
-        ModifierOrder lastFoundModifierExpectedOrder = new ModifierOrder("", false, -1, -1);
-        Modifier lastFoundModifier = new Modifier("", false, -1, -1);
-        for (Modifier modifier : modifiers) {
-            ModifierOrder expectedOrder = getTemplate(ast).getOrder(modifier);
+        checkOrder(template, modifiers, getDeclarationLogger(ast));
+    }
+
+    static void checkOrder(Order template, Modifiers modifiers, ViolationLogger logger) {
+        ModifierOrder lastFoundModifierExpectedOrder = NOT_FOUND;
+        int lastFoundModifier = -1;
+        for (int modifier = 0; modifier < modifiers.size(); modifier++) {
+            ModifierOrder expectedOrder = template.getOrder(modifiers, modifier);
             if (expectedOrder == null) continue;
 
+            int lineNo = modifiers.lineNo(modifier);
+            int lastFoundLineNo = lastFoundModifier >= 0 ? modifiers.lineNo(lastFoundModifier) : -1;
             if (expectedOrder.order() < lastFoundModifierExpectedOrder.order()) {
-                log(modifier.lineNo(), modifier.colNo(),
-                        "{0} must be placed before {1}", modifier.toString(), lastFoundModifier.toString());
+                logger.log(Kind.ORDER, lineNo, modifiers.colNo(modifier),
+                        modifiers.get(modifier), modifiers.get(lastFoundModifier));
             }
-            if (!lastFoundModifierExpectedOrder.matches(modifier, true)
+            if (!lastFoundModifierExpectedOrder.matches(modifiers, modifier, true)
                     && expectedOrder.groupOrder() == lastFoundModifierExpectedOrder.groupOrder()
-                    && modifier.lineNo() != lastFoundModifier.lineNo()) {
-                log(modifier.lineNo(), modifier.colNo(),
-                        "{0} must be placed on the same line with {1}", modifier.toString(), lastFoundModifier.toString());
+                    && lineNo != lastFoundLineNo) {
+                logger.log(Kind.SAME_LINE, lineNo, modifiers.colNo(modifier),
+                        modifiers.get(modifier), modifiers.get(lastFoundModifier));
             }
             if (expectedOrder.groupOrder() > lastFoundModifierExpectedOrder.groupOrder()
-                    && modifier.lineNo() <= lastFoundModifier.lineNo()) {
-                log(modifier.lineNo(), modifier.colNo(),
-                        "{0} must be placed on the new line after {1}", modifier.toString(), lastFoundModifier.toString());
+                    && lineNo <= lastFoundLineNo) {
+                logger.log(Kind.NEW_LINE, lineNo, modifiers.colNo(modifier),
+                        modifiers.get(modifier), modifiers.get(lastFoundModifier));
             }
 
             lastFoundModifier = modifier;
@@ -50,12 +91,18 @@ public class AnnotationOrderCheck extends AbstractModifiersCheck {
         }
     }
 
-    private Order getTemplate(DetailAST ast) {
-        return switch (ast.getType()) {
+    private boolean isCandidate(Order template) {
+        if (template == typeTemplate) return (candidates & 1) != 0;
+        if (template == fieldTemplate) return (candidates & 2) != 0;
+        return (candidates & 4) != 0;
+    }
+
+    Order getTemplate(int token) {
+        return switch (token) {
             case CLASS_DEF, INTERFACE_DEF, ANNOTATION_DEF, RECORD_DEF, ENUM_DEF -> typeTemplate;
             case VARIABLE_DEF, ANNOTATION_FIELD_DEF, PARAMETER_DEF -> fieldTemplate;
             case CTOR_DEF, METHOD_DEF -> methodTemplate;
-            default -> new Order(List.of());
+            default -> NO_TEMPLATE;
         };
     }
 }
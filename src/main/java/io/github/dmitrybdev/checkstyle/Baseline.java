@@ -0,0 +1,186 @@
+package io.github.dmitrybdev.checkstyle;
+
+import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.ModifierViolation.Kind;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fingerprints of known violations, which the checks drop before reporting. A fingerprint is a 64-bit hash of
+ * the path of the file relative to the baseline, the signature of the enclosing declaration, the kind of the
+ * violation and the modifiers or declarations it names, so it does not change when the code only moves between
+ * lines. The file holds the number of fingerprints and the fingerprints sorted, after a magic number; it is read
+ * into an open addressing hash set, and read again once it is modified.
+ * <p>
+ * While recording, every violation is reported and its fingerprint is collected, and {@link #saveRecorded()}
+ * writes the collected fingerprints of every baseline loaded since recording started.
+ */
+final class Baseline {
+
+    private static final int MAGIC = 0x414F4342;
+    private static final long EMPTY = 0;
+    private static final long MISSING = -1;
+
+    private static final Map<Path, Baseline> loaded = new ConcurrentHashMap<>();
+    private static volatile boolean recording;
+
+    private final Path file;
+    private final Path root;
+    private final long[] table;
+    private final int size;
+    private final long modified;
+    private final @Nullable Set<Long> recorded;
+
+
+    private Baseline(Path file, long[] fingerprints, long modified, boolean recording) {
+        this.file = file;
+        this.modified = modified;
+        this.root = file.getParent();
+        this.size = fingerprints.length;
+        this.table = new long[Integer.highestOneBit(Math.max(size, 1) * 2) * 2];
+        for (long fingerprint : fingerprints) add(fingerprint);
+        this.recorded = recording ? ConcurrentHashMap.newKeySet() : null;
+    }
+
+    /**
+     * Baseline of the file, empty if the file does not exist yet, or recording if recording started. The file is
+     * read again if it was modified since it was last read.
+     */
+    static Baseline load(Path file) {
+        Path key = file.toAbsolutePath().normalize();
+        long modified = getModified(key);
+        Baseline cached = loaded.get(key);
+        if (cached != null && cached.isCurrent(modified)) return cached;
+
+        return loaded.compute(key, (k, existing) -> {
+            if (existing != null && existing.isCurrent(modified)) return existing;
+            if (recording) return new Baseline(k, new long[0], modified, true);
+            try {
+                return new Baseline(k, modified != MISSING ? read(k) : new long[0], modified, false);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException("Unable to read baseline " + k, e);
+            }
+        });
+    }
+
+    /** The baseline of the same file as it is now, which is this one unless the file was modified. */
+    Baseline reload() {
+        return load(file);
+    }
+
+    /** Makes the baselines loaded from now on collect the fingerprints of all violations instead of dropping any. */
+    static void startRecording() {
+        recording = true;
+        loaded.clear();
+    }
+
+    /** Writes the fingerprints collected by every recording baseline, and stops recording. */
+    static void saveRecorded() throws IOException {
+        recording = false;
+        for (Baseline baseline : loaded.values()) {
+            if (baseline.recorded != null) baseline.save(baseline.recorded);
+        }
+        loaded.clear();
+    }
+
+
+    /** Path of the file relative to the directory of the baseline, with {@code /} as the separator. */
+    String relativize(String fileName) {
+        Path path = Path.of(fileName).toAbsolutePath().normalize();
+        return root.relativize(path).toString().replace('\\', '/');
+    }
+
+    /** Whether the violation is known and must be dropped. While recording, collects it and returns false. */
+    boolean isKnown(String file, String declaration, Kind kind, String names) {
+        long fingerprint = fingerprint(file, declaration, kind, names);
+        if (recorded != null) {
+            recorded.add(fingerprint);
+            return false;
+        }
+        return contains(fingerprint);
+    }
+
+    /** Fingerprint of the content, to tell baselines apart. */
+    String describe() {
+        long hash = size;
+        for (long fingerprint : table) hash = hash * 31 + fingerprint;
+        return Long.toHexString(hash);
+    }
+
+
+    /** FNV-1a hash of the parts separated by newlines, which never returns the empty slot value. */
+    static long fingerprint(String file, String declaration, Kind kind, String names) {
+        long hash = 0xcbf29ce484222325L;
+        for (String part : new String[] { file, declaration, kind.key(), names }) {
+            for (byte b : part.getBytes(StandardCharsets.UTF_8)) hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+            hash = (hash ^ '\n') * 0x100000001b3L;
+        }
+        return hash != EMPTY ? hash : 1;
+    }
+
+    /** Whether the baseline is recording, or was read from the file as it was last modified. */
+    private boolean isCurrent(long modified) {
+        return recorded != null || this.modified == modified;
+    }
+
+    private static long getModified(Path file) {
+        try {
+            return Files.exists(file) ? Files.getLastModifiedTime(file).to(TimeUnit.NANOSECONDS) : MISSING;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Unable to read baseline " + file, e);
+        }
+    }
+
+    private boolean contains(long fingerprint) {
+        int mask = table.length - 1;
+        for (int slot = mix(fingerprint) & mask; table[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (table[slot] == fingerprint) return true;
+        }
+        return false;
+    }
+
+    private void add(long fingerprint) {
+        int mask = table.length - 1;
+        int slot = mix(fingerprint) & mask;
+        while (table[slot] != EMPTY && table[slot] != fingerprint) slot = (slot + 1) & mask;
+        table[slot] = fingerprint;
+    }
+
+    private static int mix(long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> 32));
+    }
+
+
+    private static long[] read(Path file) throws IOException {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a baseline file: " + file);
+
+            long[] fingerprints = new long[in.readInt()];
+            for (int i = 0; i < fingerprints.length; i++) fingerprints[i] = in.readLong();
+            return fingerprints;
+        }
+    }
+
+    private void save(Set<Long> recorded) throws IOException {
+        long[] fingerprints = recorded.stream().mapToLong(Long::longValue).sorted().toArray();
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(fingerprints.length);
+            for (long fingerprint : fingerprints) out.writeLong(fingerprint);
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package io.github.dmitrybdev.checkstyle;
 
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.ModifierViolation.Kind;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static com.puppycrawl.tools.checkstyle.api.TokenTypes.*;
 
@@ -13,6 +16,7 @@ public class BoundaryCheck extends AbstractModifiersCheck {
     private Order before = new Order(List.of());
     private int minNewLines = 0;
     private int commentsAsNewLines = Integer.MAX_VALUE;
+    private LineIndex lineIndex;
 
 
     public void setMinLength(int minLength) { this.minLength = minLength; }
@@ -22,52 +26,56 @@ public class BoundaryCheck extends AbstractModifiersCheck {
     public void setCommentsAsNewLines(int commentsAsNewLines) { this.commentsAsNewLines = commentsAsNewLines; }
 
 
+    @Override
+    public int[] getDefaultTokens() {
+        if (minNewLines <= 0) return new int[0];
+
+        return IntStream.of(getTokens(before))
+                .filter(token -> token != PARAMETER_DEF && token != RECORD_COMPONENT_DEF)
+                .toArray();
+    }
+
+    @Override
+    public void beginTree(DetailAST rootAST) {
+        super.beginTree(rootAST);
+        lineIndex = new LineIndex(getFileContents());
+    }
+
     @Override
     public void visitToken(DetailAST ast) {
         if (ast.getParent().getType() != OBJBLOCK) return;
         if (ast.getPreviousSibling() == null) return;
+        if (!isChanged(ast.getPreviousSibling().getLineNo(), getEndLineNo(ast))) return;
 
-        if (!after.matches(getModifiers(ast.getPreviousSibling()))) return;
-        if (!before.matches(getModifiers(ast))) return;
+        if (!after.matches(extractModifiers(ast.getPreviousSibling()))) return;
+        if (!before.matches(extractModifiers(ast))) return;
 
+        checkInterval(ast, lineIndex, getDeclarationLogger(ast));
+    }
+
+    boolean isBoundary(@Nullable Modifiers previous, @Nullable Modifiers current) {
+        return after.matches(previous) && before.matches(current);
+    }
+
+    void checkInterval(DetailAST ast, LineIndex lineIndex, ViolationLogger logger) {
         if (getLength(ast) + getLength(ast.getPreviousSibling()) < minLength) return;
 
-        int interval = getInterval(ast);
+        int interval = getInterval(ast, lineIndex);
         if (interval < minNewLines) {
-            log(ast.getLineNo(), ast.getColumnNo(),
-                    "Current interval ({0} lines) is less than required: {1}", interval, minNewLines);
-        };
+            logger.log(Kind.INTERVAL, ast.getLineNo(), ast.getColumnNo(), interval, minNewLines);
+        }
     }
 
 
     private int getLength(DetailAST ast) {
-        if (ast.getType() == LCURLY || ast.getType() == COMMA) return 1;
-        if (ast.getType() == METHOD_DEF && ast.getLastChild().getType() == SLIST) {
-            return ast.getLastChild().getLastChild().getLineNo() - ast.getLineNo() + 1;
-        }
-        return ast.getLastChild().getLineNo() - ast.getLineNo() + 1;
+        return getEndLineNo(ast) - ast.getLineNo() + 1;
     }
 
 
-    private int getInterval(DetailAST ast) {
+    private int getInterval(DetailAST ast, LineIndex lineIndex) {
         if (ast.getLineNo() <= 1) return Integer.MAX_VALUE;
 
-        int spaces = 0;
-        int comments = 0;
-        for (int i = 0; i < ast.getLineNo(); i++) {
-            String line = getLine(ast.getLineNo() - i - 2).trim();
-
-            if (line.startsWith("//") || line.startsWith("/*") || line.startsWith("*")) {
-                comments++;
-                continue;
-            }
-            if (line.isBlank()) {
-                spaces++;
-                continue;
-            }
-            break;
-        }
-
-        return Math.min(comments, commentsAsNewLines) + spaces;
+        return Math.min(lineIndex.getCommentLinesBefore(ast.getLineNo()), commentsAsNewLines)
+                + lineIndex.getBlankLinesBefore(ast.getLineNo());
     }
 }
@@ -0,0 +1,199 @@
+package io.github.dmitrybdev.checkstyle;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lines changed in every file, read from a unified diff or from the working tree of a git repository. A removed
+ * line marks the lines around the place it was removed from, and a file that git does not track yet is changed
+ * as a whole. Loaded once per source and shared by all checks, until the modification time or size of the diff file
+ * changes or, for a working tree, until it is {@link #refresh(String) refreshed}.
+ */
+final class ChangedLines {
+
+    private static final Map<String, ChangedLines> loaded = new ConcurrentHashMap<>();
+
+    private final Map<Path, BitSet> files = new HashMap<>();
+    private final Set<Path> added = new HashSet<>();
+    private final StringBuilder description = new StringBuilder();
+    private long modified;
+    private long size;
+
+
+    private ChangedLines() {}
+
+    /**
+     * Changed lines of the unified diff file, or of the git working tree if the source is a directory. Cheap enough
+     * to call for every file: the diff file is read again only when it changed, and git runs once per refresh.
+     */
+    static ChangedLines load(String source) {
+        try {
+            Path path = Path.of(source);
+            boolean workTree = Files.isDirectory(path);
+            long modified = workTree ? 0 : Files.getLastModifiedTime(path).to(TimeUnit.NANOSECONDS);
+            long size = workTree ? 0 : Files.size(path);
+            ChangedLines cached = loaded.get(source);
+            if (cached != null && cached.modified == modified && cached.size == size) return cached;
+
+            return loaded.compute(source, (key, current) -> {
+                if (current != null && current.modified == modified && current.size == size) return current;
+
+                try {
+                    ChangedLines changedLines = workTree
+                            ? fromGit(path)
+                            : parseDiff(Files.readString(path), Path.of("").toAbsolutePath());
+                    changedLines.modified = modified;
+                    changedLines.size = size;
+                    return changedLines;
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Unable to read changed lines from " + source, e);
+        }
+        catch (UncheckedIOException e) {
+            throw new UncheckedIOException("Unable to read changed lines from " + source, e.getCause());
+        }
+    }
+
+    /** Makes the next load of the working tree run git again, to see the changes made since the last one. */
+    static void refresh(String source) {
+        if (Files.isDirectory(Path.of(source))) loaded.remove(source);
+    }
+
+    /** Changes against {@code HEAD} in the working tree, including files not tracked yet. */
+    static ChangedLines fromGit(Path workTree) throws IOException {
+        Path root = Path.of(git(workTree, "rev-parse", "--show-toplevel").strip());
+        ChangedLines changedLines = parseDiff(
+                git(workTree, "diff", "--unified=0", "--no-color", "--no-ext-diff", "HEAD"), root);
+        for (String file : git(workTree, "ls-files", "--others", "--exclude-standard", "--full-name").split("\n")) {
+            if (file.isEmpty()) continue;
+
+            changedLines.added.add(root.resolve(file).normalize());
+            changedLines.description.append("+++ ").append(file).append('\n');
+        }
+        return changedLines;
+    }
+
+    /** Changed lines of a unified diff, with the paths of the new files resolved against the root. */
+    static ChangedLines parseDiff(String diff, Path root) {
+        ChangedLines changedLines = new ChangedLines();
+        changedLines.description.append(diff);
+
+        BitSet lines = null;
+        int newLineNo = 0, oldRemaining = 0, newRemaining = 0;
+        boolean removed = false;
+        for (String line : diff.split("\n")) {
+            if (oldRemaining > 0 || newRemaining > 0) {
+                if (line.startsWith("+")) {
+                    if (lines != null) lines.set(newLineNo);
+                    newLineNo++;
+                    newRemaining--;
+                    removed = false;
+                }
+                else if (line.startsWith("-")) {
+                    oldRemaining--;
+                    removed = true;
+                }
+                else if (!line.startsWith("\\")) {
+                    markRemoved(lines, removed, newLineNo);
+                    newLineNo++;
+                    oldRemaining--;
+                    newRemaining--;
+                    removed = false;
+                }
+                if (oldRemaining <= 0 && newRemaining <= 0) markRemoved(lines, removed, newLineNo);
+            }
+            else if (line.startsWith("+++ ")) {
+                String path = getPath(line.substring(4));
+                lines = path != null
+                        ? changedLines.files.computeIfAbsent(root.resolve(path).normalize(), file -> new BitSet())
+                        : null;
+            }
+            else if (line.startsWith("@@ ")) {
+                String[] ranges = line.split(" ");
+                int[] oldRange = parseRange(ranges[1]);
+                int[] newRange = parseRange(ranges[2]);
+                oldRemaining = oldRange[1];
+                newRemaining = newRange[1];
+                newLineNo = newRange[0];
+                if (newRemaining == 0) newLineNo++;
+                removed = false;
+            }
+        }
+        return changedLines;
+    }
+
+
+    /** Changed lines of the file, empty if it did not change, or {@code null} if all of its lines changed. */
+    @Nullable BitSet get(String fileName) {
+        Path file = Path.of(fileName).toAbsolutePath().normalize();
+        if (added.contains(file)) return null;
+        return files.getOrDefault(file, new BitSet());
+    }
+
+    /** Whether any of the lines from the start to the end, inclusive, changed. */
+    static boolean intersects(@Nullable BitSet changed, int startLineNo, int endLineNo) {
+        if (changed == null) return true;
+
+        int next = changed.nextSetBit(startLineNo);
+        return next >= 0 && next <= endLineNo;
+    }
+
+    /** The diff the lines were read from, to tell sets of changed lines apart. */
+    String describe() {
+        return description.toString();
+    }
+
+
+    /** Marks the lines around removed lines that were not replaced by added ones. */
+    private static void markRemoved(@Nullable BitSet lines, boolean removed, int newLineNo) {
+        if (removed && lines != null) lines.set(Math.max(newLineNo - 1, 1), newLineNo + 1);
+    }
+
+    private static @Nullable String getPath(String header) {
+        String path = header.split("\t", 2)[0].strip();
+        if (path.equals("/dev/null")) return null;
+        return path.startsWith("b/") ? path.substring(2) : path;
+    }
+
+    /** Start and count of a hunk range like {@code +12,3}, where the count defaults to 1. */
+    private static int[] parseRange(String range) {
+        String[] parts = range.substring(1).split(",");
+        return new int[] { Integer.parseInt(parts[0]), parts.length > 1 ? Integer.parseInt(parts[1]) : 1 };
+    }
+
+    private static String git(Path workTree, String... args) throws IOException {
+        List<String> command = new ArrayList<>(List.of("git", "-C", workTree.toString()));
+        command.addAll(List.of(args));
+        Process process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        try {
+            if (process.waitFor() != 0) throw new IOException("git " + String.join(" ", args) + " failed");
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running git", e);
+        }
+        return output;
+    }
+}
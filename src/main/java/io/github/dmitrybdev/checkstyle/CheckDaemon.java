@@ -0,0 +1,190 @@
+package io.github.dmitrybdev.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import io.github.dmitrybdev.checkstyle.ParallelRunner.Source;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Long-lived process that checks files on request with a {@link ParallelRunner} kept between requests, so the
+ * templates are compiled once and the checks run warm. The configuration is loaded again when its file changes.
+ * <p>
+ * Requests are lines of UTF-8 text, read from standard input or from every connection to a Unix domain socket:
+ * <pre>
+ * file &lt;path&gt;                   adds a file to check as it is on disk
+ * buffer &lt;lines&gt; &lt;path&gt;          adds a file to check with the content in the next &lt;lines&gt; lines
+ * check                         checks the files added since the previous check
+ * quit                          ends the session
+ * </pre>
+ * {@code check} replies with a line per violation, tab separated: {@code violation}, path, line, column, severity,
+ * check and message, followed by {@code done}, the number of files and the number of violations. A request that
+ * cannot be served is answered with {@code error} and the reason.
+ */
+public final class CheckDaemon {
+
+    private final Path configuration;
+    private final int threads;
+    private @Nullable ParallelRunner runner;
+    private byte @Nullable [] loaded;
+
+
+    public CheckDaemon(Path configuration, int threads) {
+        this.configuration = configuration;
+        this.threads = threads;
+    }
+
+
+    /** Serves the requests of one session until {@code quit} or the end of the input. */
+    public void serve(Reader input, Writer output) throws IOException {
+        var in = new BufferedReader(input);
+        var out = new PrintWriter(output);
+        List<Source> sources = new ArrayList<>();
+        for (String request; (request = in.readLine()) != null; ) {
+            try {
+                if (!serve(request, in, out, sources)) break;
+            }
+            catch (RuntimeException e) {
+                out.println("error\tMalformed request: " + request);
+            }
+            out.flush();
+        }
+    }
+
+    /** Serves one request, and returns false if it ends the session. */
+    private boolean serve(String request, BufferedReader in, PrintWriter out, List<Source> sources)
+            throws IOException {
+        String[] words = request.split(" ", 2);
+        switch (words[0]) {
+            case "file" -> sources.add(Source.of(Path.of(words[1])));
+            case "buffer" -> {
+                String[] header = words[1].split(" ", 2);
+                var content = new StringBuilder();
+                for (int i = Integer.parseInt(header[0]); i > 0; i--) {
+                    String line = in.readLine();
+                    if (line == null) break;
+                    content.append(line).append('\n');
+                }
+                sources.add(new Source(Path.of(header[1]), content.toString()));
+            }
+            case "check" -> {
+                check(sources, out);
+                sources.clear();
+            }
+            case "quit" -> {
+                return false;
+            }
+            case "" -> {}
+            default -> out.println("error\tUnknown request: " + request);
+        }
+        return true;
+    }
+
+    private void check(List<Source> sources, PrintWriter out) {
+        try {
+            int[] violations = new int[1];
+            getRunner().checkSources(sources, result -> {
+                for (Violation violation : result.violations()) {
+                    if (violation.getSeverityLevel() == SeverityLevel.IGNORE) continue;
+
+                    violations[0]++;
+                    out.println(String.join("\t", "violation", result.file().toString(),
+                            String.valueOf(violation.getLineNo()), String.valueOf(violation.getColumnNo()),
+                            violation.getSeverityLevel().getName(),
+                            StreamingReporter.getCheckName(violation.getModuleId(), violation.getSourceName()),
+                            violation.getViolation().replace('\t', ' ').replace('\n', ' ')));
+                }
+            });
+            out.println("done\t" + sources.size() + "\t" + violations[0]);
+        }
+        catch (CheckstyleException | IOException e) {
+            out.println("error\t" + e.getMessage());
+        }
+    }
+
+    /**
+     * The runner of the current configuration, loaded again if the content of the file changed since the last
+     * request, which the modification time can miss within its resolution.
+     */
+    synchronized ParallelRunner getRunner() throws CheckstyleException, IOException {
+        byte[] digest = ResultCache.digest(Files.readAllBytes(configuration));
+        if (runner == null || !Arrays.equals(digest, loaded)) {
+            runner = ParallelRunner.load(configuration, threads);
+            loaded = digest;
+        }
+        return runner;
+    }
+
+
+    /**
+     * Usage: {@code CheckDaemon -c <configuration.xml> [-t <threads>] [--socket <path>]}. Serves standard input and
+     * output, or every connection to the socket until the process is stopped.
+     */
+    public static void main(String[] args) throws Exception {
+        Path configuration = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path socket = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-c" -> configuration = Path.of(args[++i]);
+                case "-t" -> threads = Integer.parseInt(args[++i]);
+                case "--socket" -> socket = Path.of(args[++i]);
+                default -> {
+                    System.err.println("Unknown argument: " + args[i]);
+                    System.exit(-1);
+                }
+            }
+        }
+        if (configuration == null) {
+            System.err.println("Usage: CheckDaemon -c <configuration.xml> [-t <threads>] [--socket <path>]");
+            System.exit(-1);
+        }
+
+        var daemon = new CheckDaemon(configuration, threads);
+        daemon.getRunner();
+        if (socket == null) {
+            daemon.serve(new InputStreamReader(System.in, StandardCharsets.UTF_8),
+                    new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            return;
+        }
+
+        Files.deleteIfExists(socket);
+        try (var server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            socket.toFile().deleteOnExit();
+            while (true) {
+                SocketChannel connection = server.accept();
+                Thread thread = new Thread(() -> {
+                    try (connection) {
+                        daemon.serve(Channels.newReader(connection, StandardCharsets.UTF_8),
+                                Channels.newWriter(connection, StandardCharsets.UTF_8));
+                    }
+                    catch (IOException e) {
+                        System.err.println("Connection failed: " + e.getMessage());
+                    }
+                }, "check-daemon-session");
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+    }
+}
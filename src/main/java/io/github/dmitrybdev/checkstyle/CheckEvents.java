@@ -0,0 +1,56 @@
+package io.github.dmitrybdev.checkstyle;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder events of the checks. Until a recording is started no {@link FileCheck} is allocated,
+ * without one the events are never committed, and the threshold of {@link FileCheck} keeps files checked in less
+ * than a millisecond out of a recording.
+ */
+final class CheckEvents {
+
+    private CheckEvents() {}
+
+
+    /** Whether a recording may be running, so that checks allocate no events in a JVM that never started one. */
+    static boolean isRecording() {
+        return FlightRecorder.isInitialized();
+    }
+
+
+    @Name("io.github.dmitrybdev.checkstyle.FileCheck")
+    @Label("File Check")
+    @Description("A check processing one file")
+    @Category({ "Checkstyle", "Modifiers" })
+    @StackTrace(false)
+    @Threshold("1 ms")
+    static final class FileCheck extends Event {
+        @Label("Check") Class<?> check;
+        @Label("Check Id") String id;
+        @Label("File") String file;
+        @Label("Tokens Visited") int tokens;
+        @Label("Modifiers Extracted") int modifiers;
+        @Label("Violations Logged") int violations;
+        @Label("Budget Exceeded") boolean budgetExceeded;
+    }
+
+    @Name("io.github.dmitrybdev.checkstyle.TemplateCompilation")
+    @Label("Template Compilation")
+    @Description("A template parsed from a check property, compiled or taken from the template cache")
+    @Category({ "Checkstyle", "Modifiers" })
+    @StackTrace(false)
+    @Threshold("0 ms")
+    static final class TemplateCompilation extends Event {
+        @Label("Check") Class<?> check;
+        @Label("Template") String template;
+        @Label("Groups") int groups;
+        @Label("Cached") boolean cached;
+    }
+}
@@ -1,21 +1,28 @@
 package io.github.dmitrybdev.checkstyle;
 
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.ModifierViolation.Kind;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Stream;
 
 import static com.puppycrawl.tools.checkstyle.api.TokenTypes.*;
 
 public class DeclarationOrderCheck extends AbstractModifiersCheck {
 
+    static final GroupOrder NOT_FOUND = new GroupOrder(List.of(), -1);
+
     private Order template = new Order(List.of());
 
 
     public void setTemplate(String template) { this.template = parseTemplate(template); }
 
 
+    @Override
+    public int[] getDefaultTokens() {
+        return template.groups().isEmpty() ? new int[0] : getAcceptableTokens();
+    }
+
     @Override
     public int[] getAcceptableTokens() {
         return new int[] { COMPILATION_UNIT, CLASS_DEF, INTERFACE_DEF, ENUM_DEF, RECORD_DEF, ANNOTATION_DEF };
@@ -23,27 +30,39 @@ public class DeclarationOrderCheck extends AbstractModifiersCheck {
 
     @Override
     public void visitToken(DetailAST ast) {
-        var lastFoundDeclaration = new GroupOrder(List.of(), -1);
-        for (DetailAST child : getChildren(ast)) {
-            var modifiers = getModifiers(child);
-            if (modifiers == null) continue;
+        if (ast.getType() != COMPILATION_UNIT && !isChanged(ast.findFirstToken(OBJBLOCK))) return;
 
-            GroupOrder expectedOrder = template.getOrder(modifiers);
+        GroupOrder lastFoundDeclaration = NOT_FOUND;
+        DetailAST lastFound = null;
+        for (DetailAST child = getFirstChild(ast); child != null; child = child.getNextSibling()) {
+            GroupOrder expectedOrder = checkOrder(
+                    lastFoundDeclaration, child, extractModifiers(child), getViolationLogger(child, lastFound));
             if (expectedOrder == null) continue;
 
-            if (expectedOrder.order() < lastFoundDeclaration.order()) {
-                log(child.getLineNo(), child.getColumnNo(),
-                        "{0} must be placed before {1}", expectedOrder.toString(), lastFoundDeclaration.toString());
-            }
-
             lastFoundDeclaration = expectedOrder;
+            lastFound = child;
+        }
+    }
+
+    /** Group of the declaration, or {@code null} if it matches none, after logging whether it is out of order. */
+    @Nullable GroupOrder checkOrder(
+            GroupOrder lastFoundDeclaration, DetailAST child, @Nullable Modifiers modifiers, ViolationLogger logger
+    ) {
+        if (modifiers == null) return null;
+
+        GroupOrder expectedOrder = template.getOrder(modifiers);
+        if (expectedOrder == null) return null;
+
+        if (expectedOrder.order() < lastFoundDeclaration.order()) {
+            logger.log(Kind.DECLARATION_ORDER, child.getLineNo(), child.getColumnNo(),
+                    expectedOrder, lastFoundDeclaration);
         }
+        return expectedOrder;
     }
 
-    private List<DetailAST> getChildren(DetailAST ast) {
-        DetailAST childrenAst = ast.getType() == COMPILATION_UNIT
+    private DetailAST getFirstChild(DetailAST ast) {
+        return ast.getType() == COMPILATION_UNIT
                 ? ast.getFirstChild()
                 : ast.findFirstToken(OBJBLOCK).getFirstChild();
-        return Stream.iterate(childrenAst, Objects::nonNull, DetailAST::getNextSibling).toList();
     }
 }
@@ -0,0 +1,71 @@
+package io.github.dmitrybdev.checkstyle;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limit on the work of a check on one file: milliseconds since the check started the file, tokens visited, or
+ * both. The clock is read once every {@value #CLOCK_INTERVAL} tokens, so a time budget may be overrun by that
+ * many tokens.
+ */
+public final class FileBudget {
+
+    static final int CLOCK_INTERVAL = 256;
+
+    private static final LongAdder totalFiles = new LongAdder();
+    private static final LongAdder totalExceeded = new LongAdder();
+
+    private long millis;
+    private long tokens;
+    private long deadline;
+    private long visited;
+    private boolean exceeded;
+
+
+    void setMillis(long millis) { this.millis = millis; }
+    void setTokens(long tokens) { this.tokens = tokens; }
+
+    public static Stats stats() {
+        return new Stats(totalFiles.sum(), totalExceeded.sum());
+    }
+
+
+    void start() {
+        visited = 0;
+        exceeded = false;
+        if (millis <= 0 && tokens <= 0) return;
+
+        deadline = millis > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis) : Long.MAX_VALUE;
+        totalFiles.increment();
+    }
+
+    /** Counts a visited token, and returns false if the file is over the budget, starting with this token. */
+    boolean visit() {
+        if (exceeded) return false;
+
+        visited++;
+        if (tokens > 0 && visited > tokens
+                || millis > 0 && visited % CLOCK_INTERVAL == 0 && System.nanoTime() - deadline > 0) {
+            exceeded = true;
+            totalExceeded.increment();
+            return false;
+        }
+        return true;
+    }
+
+    long visited() { return visited; }
+    boolean isExceeded() { return exceeded; }
+
+    @Override
+    public String toString() {
+        if (millis > 0 && tokens > 0) return millis + " ms or " + tokens + " tokens";
+        return millis > 0 ? millis + " ms" : tokens + " tokens";
+    }
+
+
+    public record Stats(long files, long exceeded) {
+        public double exceedRate() {
+            return files == 0 ? 0 : (double) exceeded / files;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.dmitrybdev.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.TextBlock;
+
+import java.util.List;
+
+/**
+ * Blank and comment lines of a file, computed on first use as the number of consecutive blank and comment
+ * lines ending at every line. A line is a comment line when its first non-blank character belongs to one of the
+ * comments the Checkstyle lexer reported, so literals that contain {@code //} or {@code /*} are code.
+ */
+final class LineIndex {
+
+    private final FileContents contents;
+    private int[] blankLines;
+    private int[] commentLines;
+
+
+    LineIndex(FileContents contents) {
+        this.contents = contents;
+    }
+
+    private void index() {
+        String[] lines = contents.getLines();
+        boolean[] comment = new boolean[lines.length + 1];
+        for (TextBlock block : contents.getSingleLineComments().values()) markComment(block, lines, comment);
+        for (List<TextBlock> blocks : contents.getBlockComments().values()) {
+            for (TextBlock block : blocks) markComment(block, lines, comment);
+        }
+
+        blankLines = new int[lines.length + 1];
+        commentLines = new int[lines.length + 1];
+        for (int lineNo = 1; lineNo <= lines.length; lineNo++) {
+            String line = lines[lineNo - 1];
+            boolean blank = getIndent(line) == line.length();
+            if (!blank && !comment[lineNo]) continue;
+
+            blankLines[lineNo] = blankLines[lineNo - 1] + (blank ? 1 : 0);
+            commentLines[lineNo] = commentLines[lineNo - 1] + (blank ? 0 : 1);
+        }
+    }
+
+    /** Marks the lines of the comment that start inside it: all but the first, which only when it starts with it. */
+    private static void markComment(TextBlock block, String[] lines, boolean[] comment) {
+        int startLineNo = block.getStartLineNo();
+        if (getIndent(lines[startLineNo - 1]) == block.getStartColNo()) comment[startLineNo] = true;
+        for (int lineNo = startLineNo + 1; lineNo <= block.getEndLineNo(); lineNo++) comment[lineNo] = true;
+    }
+
+    private static int getIndent(String line) {
+        int indent = 0;
+        while (indent < line.length() && Character.isWhitespace(line.charAt(indent))) indent++;
+        return indent;
+    }
+
+
+    int getBlankLinesBefore(int lineNo) {
+        if (blankLines == null) index();
+        return lineNo > 1 && lineNo - 1 < blankLines.length ? blankLines[lineNo - 1] : 0;
+    }
+
+    int getCommentLinesBefore(int lineNo) {
+        if (commentLines == null) index();
+        return lineNo > 1 && lineNo - 1 < commentLines.length ? commentLines[lineNo - 1] : 0;
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.dmitrybdev.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.Modifiers;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Modifiers extracted from the file currently processed by the thread, keyed by AST node. All checks of a
+ * TreeWalker receive the same root in {@code beginTree}, so they share one cache and every declaration is
+ * extracted once per file, no matter how many checks (or how many times a check) look at it. Checks that resolve
+ * annotation names through the imports of the file extract different modifiers from the same nodes, so each thread
+ * has a cache per naming mode.
+ */
+public final class ModifierCache {
+
+    private static final ThreadLocal<ModifierCache[]> current =
+            ThreadLocal.withInitial(() -> new ModifierCache[] { new ModifierCache(), new ModifierCache() });
+    private static final LongAdder totalHits = new LongAdder();
+    private static final LongAdder totalMisses = new LongAdder();
+
+    private @Nullable DetailAST root;
+    private final Map<DetailAST, Integer> entries = new IdentityHashMap<>();
+    private final Modifiers modifiers = new Modifiers();
+    private int[] starts = new int[64];
+    private int[] ends = new int[64];
+    private long hits;
+    private long misses;
+    private long reportedHits;
+    private long reportedMisses;
+
+
+    private ModifierCache() {}
+
+
+    static ModifierCache begin(DetailAST root, boolean resolveImports) {
+        ModifierCache cache = get(resolveImports);
+        if (cache.root != root) {
+            cache.clear();
+            cache.root = root;
+        }
+        return cache;
+    }
+
+    static void finish(DetailAST root, boolean resolveImports) {
+        ModifierCache cache = get(resolveImports);
+        if (cache.root == root) cache.clear();
+    }
+
+    /** The cache of the current thread for the naming mode. */
+    static ModifierCache get(boolean resolveImports) {
+        return current.get()[resolveImports ? 1 : 0];
+    }
+
+    /** Hits and misses of the caches of all threads, counted when each file is finished. */
+    public static Stats stats() {
+        return new Stats(totalHits.sum(), totalMisses.sum());
+    }
+
+    /** Hits and misses of this cache, including those of the file in progress. */
+    Stats getStats() {
+        return new Stats(hits, misses);
+    }
+
+
+    boolean get(DetailAST ast, Modifiers into) {
+        Integer entry = entries.get(ast);
+        if (entry == null) {
+            misses++;
+            return false;
+        }
+
+        hits++;
+        into.addAll(modifiers, starts[entry], ends[entry]);
+        return true;
+    }
+
+    void put(DetailAST ast, Modifiers extracted) {
+        int entry = entries.size();
+        if (entry == starts.length) {
+            starts = Arrays.copyOf(starts, entry * 2);
+            ends = Arrays.copyOf(ends, entry * 2);
+        }
+
+        starts[entry] = modifiers.size();
+        modifiers.addAll(extracted, 0, extracted.size());
+        ends[entry] = modifiers.size();
+        entries.put(ast, entry);
+    }
+
+    private void clear() {
+        totalHits.add(hits - reportedHits);
+        totalMisses.add(misses - reportedMisses);
+        reportedHits = hits;
+        reportedMisses = misses;
+
+        root = null;
+        entries.clear();
+        modifiers.clear();
+    }
+
+
+    public record Stats(long hits, long misses) {
+        public double hitRate() {
+            return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package io.github.dmitrybdev.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+import static com.puppycrawl.tools.checkstyle.api.TokenTypes.*;
+
+/**
+ * Runs the rules of {@link AnnotationOrderCheck}, {@link DeclarationOrderCheck} and {@link BoundaryCheck} in a
+ * single pass: every class body is walked once, and the modifiers of each member are extracted once and
+ * reused by all three rules. Accepts the properties of all three checks and reports the same messages, each under
+ * the class of the check that has the rule and the id set by {@code annotationOrderId}, {@code declarationOrderId}
+ * or {@code boundaryId}, or else by {@code id}, so that suppressions of the separate checks keep matching.
+ */
+public class ModifiersSuiteCheck extends AbstractModifiersCheck {
+
+    private final AnnotationOrderCheck annotationOrder = new AnnotationOrderCheck();
+    private final DeclarationOrderCheck declarationOrder = new DeclarationOrderCheck();
+    private final BoundaryCheck boundary = new BoundaryCheck();
+
+    private final Modifiers previous = new Modifiers();
+    private final Modifiers current = new Modifiers();
+    private final BitSet boundaryTokens = new BitSet();
+    private LineIndex lineIndex;
+
+
+    public void setTypeTemplate(String typeTemplate) { annotationOrder.setTypeTemplate(typeTemplate); }
+    public void setFieldTemplate(String fieldTemplate) { annotationOrder.setFieldTemplate(fieldTemplate); }
+    public void setMethodTemplate(String methodTemplate) { annotationOrder.setMethodTemplate(methodTemplate); }
+    public void setTemplate(String template) { declarationOrder.setTemplate(template); }
+    public void setMinLength(int minLength) { boundary.setMinLength(minLength); }
+    public void setAfter(String after) { boundary.setAfter(after); }
+    public void setBefore(String before) { boundary.setBefore(before); }
+    public void setMinNewLines(int minNewLines) { boundary.setMinNewLines(minNewLines); }
+    public void setCommentsAsNewLines(int commentsAsNewLines) { boundary.setCommentsAsNewLines(commentsAsNewLines); }
+    public void setAnnotationOrderId(String id) { annotationOrder.setId(id); }
+    public void setDeclarationOrderId(String id) { declarationOrder.setId(id); }
+    public void setBoundaryId(String id) { boundary.setId(id); }
+
+
+    @Override
+    public int[] getDefaultTokens() {
+        if (!annotationOrder.getTemplate(VARIABLE_DEF).groups().isEmpty()) return getAcceptableTokens();
+        return new int[] { COMPILATION_UNIT, OBJBLOCK };
+    }
+
+    @Override
+    public int[] getAcceptableTokens() {
+        return new int[] { COMPILATION_UNIT, OBJBLOCK, VARIABLE_DEF, PARAMETER_DEF };
+    }
+
+    @Override
+    AbstractModifiersCheck getReporter(ModifierViolation.Kind kind) {
+        return switch (kind) {
+            case ORDER, SAME_LINE, NEW_LINE -> annotationOrder;
+            case DECLARATION_ORDER -> declarationOrder;
+            case INTERVAL -> boundary;
+            case BUDGET -> this;
+        };
+    }
+
+    @Override
+    public void beginTree(DetailAST rootAST) {
+        super.beginTree(rootAST);
+        lineIndex = new LineIndex(getFileContents());
+
+        boundaryTokens.clear();
+        IntStream.of(boundary.getDefaultTokens()).forEach(boundaryTokens::set);
+    }
+
+    @Override
+    public void visitToken(DetailAST ast) {
+        if (ast.getType() == COMPILATION_UNIT || ast.getType() == OBJBLOCK) {
+            visitBody(ast);
+        }
+        else if (!isBody(ast.getParent()) && isChanged(ast)) {
+            checkAnnotationOrder(ast, extractModifiers(ast));
+        }
+    }
+
+    private void visitBody(DetailAST body) {
+        boolean ordered = body.getType() == COMPILATION_UNIT || isTypeDef(body.getParent());
+        boolean bounded = body.getType() == OBJBLOCK;
+        if (bounded && !isChanged(body)) return;
+
+        GroupOrder lastFoundDeclaration = DeclarationOrderCheck.NOT_FOUND;
+        DetailAST lastFound = null;
+        Modifiers previousModifiers = previous;
+        Modifiers currentModifiers = current;
+        for (DetailAST child = body.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (!extractModifiers(child, currentModifiers)) break;
+
+            if (isChanged(child)) checkAnnotationOrder(child, currentModifiers);
+            if (ordered) {
+                GroupOrder expectedOrder = declarationOrder.checkOrder(
+                        lastFoundDeclaration, child, currentModifiers, getViolationLogger(child, lastFound));
+                if (expectedOrder != null) {
+                    lastFoundDeclaration = expectedOrder;
+                    lastFound = child;
+                }
+            }
+            if (bounded && child.getPreviousSibling() != null && boundaryTokens.get(child.getType())
+                    && isChanged(child.getPreviousSibling().getLineNo(), getEndLineNo(child))
+                    && boundary.isBoundary(previousModifiers, currentModifiers)) {
+                boundary.checkInterval(child, lineIndex, getDeclarationLogger(child));
+            }
+
+            Modifiers swap = previousModifiers;
+            previousModifiers = currentModifiers;
+            currentModifiers = swap;
+        }
+    }
+
+    private void checkAnnotationOrder(DetailAST ast, @Nullable Modifiers modifiers) {
+        Order template = annotationOrder.getTemplate(ast.getType());
+        if (template.groups().isEmpty() || modifiers == null) return;
+
+        AnnotationOrderCheck.checkOrder(template, modifiers, getDeclarationLogger(ast));
+    }
+
+    private static boolean isBody(DetailAST ast) {
+        return ast.getType() == COMPILATION_UNIT || ast.getType() == OBJBLOCK;
+    }
+
+    private static boolean isTypeDef(DetailAST ast) {
+        return switch (ast.getType()) {
+            case CLASS_DEF, INTERFACE_DEF, ENUM_DEF, RECORD_DEF, ANNOTATION_DEF -> true;
+            default -> false;
+        };
+    }
+}
@@ -0,0 +1,549 @@
+package io.github.dmitrybdev.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.AbstractAutomaticBean;
+import com.puppycrawl.tools.checkstyle.AuditEventDefaultFormatter;
+import com.puppycrawl.tools.checkstyle.ConfigurationLoader;
+import com.puppycrawl.tools.checkstyle.ConfigurationLoader.IgnoredModulesOptions;
+import com.puppycrawl.tools.checkstyle.DefaultContext;
+import com.puppycrawl.tools.checkstyle.Definitions;
+import com.puppycrawl.tools.checkstyle.ModuleFactory;
+import com.puppycrawl.tools.checkstyle.PackageNamesLoader;
+import com.puppycrawl.tools.checkstyle.PackageObjectFactory;
+import com.puppycrawl.tools.checkstyle.PropertiesExpander;
+import com.puppycrawl.tools.checkstyle.TreeWalker;
+import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.BeforeExecutionFileFilter;
+import com.puppycrawl.tools.checkstyle.api.BeforeExecutionFileFilterSet;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.Filter;
+import com.puppycrawl.tools.checkstyle.api.FilterSet;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
+import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.ModifierViolation;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs the TreeWalker checks of a Checkstyle configuration over many files on several threads. Every worker
+ * thread has its own TreeWalker with its own check instances; the checks share only immutable compiled
+ * templates and thread-safe caches, and keep the state of the file being processed per instance or per thread.
+ * Results are reported in the order of the files, whatever the order the workers finish them in. TreeWalkers are
+ * kept between runs, so the checks of a long-lived runner stay warm; working trees of {@code changedLines} are read
+ * again on every run.
+ * <p>
+ * The modules under TreeWalker are run, and the filters of Checker, like {@code SuppressionFilter} and
+ * {@code BeforeExecutionExclusionFileFilter}, apply to them as they do in Checkstyle; other file set checks and
+ * listeners of Checker are ignored. The properties of Checker that its modules inherit, like {@code severity}, apply
+ * as they do in Checkstyle, and files are filtered by its {@code fileExtensions}.
+ */
+public final class ParallelRunner {
+
+    private static final Set<String> TEMPLATE_PROPERTIES =
+            Set.of("typeTemplate", "fieldTemplate", "methodTemplate", "template", "after", "before");
+    private static final Set<String> PATH_PROPERTIES = Set.of("changedLines", "baseline");
+
+    private final Configuration treeWalkerConfiguration;
+    private final List<Configuration> filterConfigurations = new ArrayList<>();
+    private final BeforeExecutionFileFilterSet fileFilters = new BeforeExecutionFileFilterSet();
+    private final String charset;
+    private final int tabWidth;
+    private final String severity;
+    private final String basedir;
+    private final String[] fileExtensions;
+    private final int threads;
+    volatile Map<String, Long> fingerprints;
+    private final boolean pathDependent;
+    private final List<String> changedLines = new ArrayList<>();
+    private final Queue<Worker> workers = new ConcurrentLinkedQueue<>();
+    private @Nullable Path cacheFile;
+
+
+    public ParallelRunner(Configuration configuration, int threads) throws CheckstyleException {
+        this.treeWalkerConfiguration = Arrays.stream(configuration.getChildren())
+                .filter(child -> child.getName().equals("TreeWalker")
+                        || child.getName().equals(TreeWalker.class.getName()))
+                .findFirst()
+                .orElseThrow(() -> new CheckstyleException("TreeWalker is not configured"));
+        this.charset = getProperty(configuration, "charset", "UTF-8");
+        this.tabWidth = Integer.parseInt(getProperty(configuration, "tabWidth", "8"));
+        this.severity = getProperty(configuration, "severity", SeverityLevel.ERROR.getName());
+        this.basedir = getProperty(configuration, "basedir", "");
+        this.fileExtensions = Arrays.stream(getProperty(configuration, "fileExtensions", "").split(","))
+                .map(String::strip)
+                .filter(extension -> !extension.isEmpty())
+                .map(extension -> extension.startsWith(".") ? extension : "." + extension)
+                .toArray(String[]::new);
+        this.threads = threads;
+        for (Configuration child : configuration.getChildren()) {
+            if (child == treeWalkerConfiguration) continue;
+
+            Object module = createModule(child);
+            if (module instanceof BeforeExecutionFileFilter filter) fileFilters.addBeforeExecutionFileFilter(filter);
+            else if (module instanceof Filter) filterConfigurations.add(child);
+        }
+        this.fingerprints = getFingerprints();
+        this.pathDependent = !filterConfigurations.isEmpty() || isPathDependent(treeWalkerConfiguration);
+        collectProperty(treeWalkerConfiguration, "changedLines", changedLines);
+    }
+
+    public static ParallelRunner load(Path configuration, int threads) throws CheckstyleException {
+        return new ParallelRunner(ConfigurationLoader.loadConfiguration(
+                configuration.toString(), new PropertiesExpander(System.getProperties()), IgnoredModulesOptions.OMIT
+        ), threads);
+    }
+
+
+    /**
+     * Keeps the violations of every check in the file between runs, and replays them for files whose content and
+     * check configuration did not change, without parsing the files.
+     */
+    public void setCacheFile(@Nullable Path cacheFile) { this.cacheFile = cacheFile; }
+
+
+    /** Java sources under the given files and directories, sorted by path. */
+    public static List<Path> findSources(Collection<Path> paths) throws IOException {
+        List<Path> sources = new ArrayList<>();
+        for (Path path : paths) {
+            try (Stream<Path> files = Files.walk(path)) {
+                files.filter(file -> Files.isRegularFile(file) && file.toString().endsWith(".java"))
+                        .forEach(sources::add);
+            }
+        }
+        return sources.stream().sorted().distinct().toList();
+    }
+
+    public List<FileResult> check(List<Path> files) throws CheckstyleException {
+        List<FileResult> results = new ArrayList<>(files.size());
+        check(files, results::add);
+        return results;
+    }
+
+    /**
+     * Passes the result of every file with an extension accepted by the configuration to the consumer on the calling
+     * thread, in the order of the files.
+     */
+    public void check(List<Path> files, Consumer<FileResult> consumer) throws CheckstyleException {
+        checkSources(files.stream().map(Source::of).toList(), consumer);
+    }
+
+    /** Same as {@link #check(List, Consumer)}, for files that may have unsaved content. */
+    public void checkSources(List<Source> checked, Consumer<FileResult> consumer) throws CheckstyleException {
+        List<Source> sources = checked.stream()
+                .filter(source -> CommonUtil.matchesFileExtension(source.file().toFile(), fileExtensions))
+                .filter(source -> fileFilters.accept(getFileName(source.file())))
+                .toList();
+        for (String source : changedLines) ChangedLines.refresh(source);
+        ResultCache cache = loadCache();
+        if (cache != null && pathDependent) fingerprints = getFingerprints();
+        List<CompletableFuture<FileResult>> results = Stream.generate(CompletableFuture<FileResult>::new)
+                .limit(sources.size())
+                .toList();
+        AtomicInteger next = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int thread = 0; thread < Math.min(Math.max(this.threads, 1), sources.size()); thread++) {
+            Worker pooled = workers.poll();
+            Worker worker = pooled != null ? pooled : createWorker();
+            Thread workerThread = new Thread(() -> {
+                for (int source; (source = next.getAndIncrement()) < sources.size(); ) {
+                    try {
+                        results.get(source).complete(process(worker, sources.get(source), cache));
+                    }
+                    catch (Throwable e) {
+                        results.get(source).completeExceptionally(e);
+                    }
+                }
+                workers.add(worker);
+            }, "parallel-runner-" + thread);
+            workerThread.setDaemon(true);
+            workerThread.start();
+            threads.add(workerThread);
+        }
+
+        try {
+            results.forEach(result -> consumer.accept(result.join()));
+        }
+        finally {
+            next.set(sources.size());
+        }
+        try {
+            for (Thread thread : threads) thread.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CheckstyleException("Interrupted while checking", e);
+        }
+        saveCache(cache);
+    }
+
+    /** TreeWalker and Checker filters of one thread, each with its own instances of the modules. */
+    private Worker createWorker() throws CheckstyleException {
+        FilterSet filters = new FilterSet();
+        for (Configuration filter : filterConfigurations) filters.addFilter((Filter) createModule(filter));
+        return new Worker((TreeWalker) createModule(treeWalkerConfiguration), filters);
+    }
+
+    /** Module configured with the context Checker gives its modules, so that they inherit its properties. */
+    private Object createModule(Configuration configuration) throws CheckstyleException {
+        ModuleFactory factory = createModuleFactory();
+        DefaultContext context = new DefaultContext();
+        context.add("charset", charset);
+        context.add("moduleFactory", factory);
+        context.add("severity", severity);
+        if (!basedir.isEmpty()) context.add("basedir", basedir);
+        context.add("tabWidth", String.valueOf(tabWidth));
+        context.add("classLoader", ParallelRunner.class.getClassLoader());
+
+        Object module = factory.createModule(configuration.getName());
+        if (module instanceof AbstractAutomaticBean bean) {
+            bean.contextualize(context);
+            bean.configure(configuration);
+        }
+        return module;
+    }
+
+    private static ModuleFactory createModuleFactory() throws CheckstyleException {
+        ClassLoader classLoader = ParallelRunner.class.getClassLoader();
+        return new PackageObjectFactory(PackageNamesLoader.getPackageNames(classLoader), classLoader);
+    }
+
+    private FileResult process(Worker worker, Source source, @Nullable ResultCache cache) {
+        Path file = source.file();
+        try {
+            if (cache == null) return new FileResult(file, check(worker, source));
+
+            byte[] content = source.content() != null ? source.content().getBytes(charset) : Files.readAllBytes(file);
+            byte[] digest = pathDependent ? ResultCache.digest(content, relativize(file)) : ResultCache.digest(content);
+            SortedSet<Violation> violations = getCached(cache, digest);
+            if (violations == null) {
+                violations = check(worker, source);
+                putCached(cache, digest, violations);
+            }
+            return new FileResult(file, violations);
+        }
+        catch (Exception e) {
+            SortedSet<Violation> violations = new TreeSet<>();
+            violations.add(new Violation(1, Definitions.CHECKSTYLE_BUNDLE, "general.exception",
+                    new Object[] { e.getMessage() }, null, ParallelRunner.class, null));
+            return new FileResult(file, filter(worker, file, violations));
+        }
+    }
+
+    /**
+     * Violations of the TreeWalker accepted by the Checker filters, on the thread that walked the file, where filters
+     * like {@code SuppressWarningsFilter} find what its checks recorded.
+     */
+    private SortedSet<Violation> check(Worker worker, Source source) throws CheckstyleException, IOException {
+        return filter(worker, source.file(), worker.treeWalker().process(source.file().toFile(), read(source)));
+    }
+
+    private SortedSet<Violation> filter(Worker worker, Path file, SortedSet<Violation> violations) {
+        if (worker.filters().getFilters().isEmpty()) return violations;
+
+        String fileName = getFileName(file);
+        violations.removeIf(violation -> !worker.filters().accept(new AuditEvent(this, fileName, violation)));
+        return violations;
+    }
+
+    /** Name of the file as Checker passes it to its filters, relative to {@code basedir} if it is set. */
+    private String getFileName(Path file) {
+        String fileName = file.toAbsolutePath().toString();
+        return basedir.isEmpty() ? fileName : CommonUtil.relativizePath(basedir, fileName);
+    }
+
+    /** Path of the file relative to the working directory, so that the cache does not depend on where it is. */
+    private static String relativize(Path file) {
+        return Path.of("").toAbsolutePath().relativize(file.toAbsolutePath()).toString();
+    }
+
+    private FileText read(Source source) throws IOException {
+        if (source.content() == null) return new FileText(source.file().toFile(), charset);
+        return new FileText(source.file().toFile(), source.content().lines().toList());
+    }
+
+    private @Nullable ResultCache loadCache() throws CheckstyleException {
+        try {
+            return cacheFile != null ? ResultCache.load(cacheFile) : null;
+        }
+        catch (IOException e) {
+            throw new CheckstyleException("Unable to load cache " + cacheFile, e);
+        }
+    }
+
+    private void saveCache(@Nullable ResultCache cache) throws CheckstyleException {
+        if (cache == null) return;
+        try {
+            cache.save();
+        }
+        catch (IOException e) {
+            throw new CheckstyleException("Unable to save cache " + cacheFile, e);
+        }
+    }
+
+    private @Nullable SortedSet<Violation> getCached(ResultCache cache, byte[] digest) {
+        SortedSet<Violation> violations = new TreeSet<>();
+        for (long fingerprint : fingerprints.values()) {
+            List<Violation> cached = cache.get(ResultCache.key(digest, fingerprint));
+            if (cached == null) return null;
+            violations.addAll(cached);
+        }
+        return violations;
+    }
+
+    private void putCached(ResultCache cache, byte[] digest, SortedSet<Violation> violations) {
+        Map<String, List<Violation>> byCheck = violations.stream()
+                .collect(Collectors.groupingBy(ParallelRunner::getCheck));
+        if (!fingerprints.keySet().containsAll(byCheck.keySet())) return;
+
+        fingerprints.forEach((check, fingerprint) -> {
+            List<Violation> checkViolations = byCheck.getOrDefault(check, List.of());
+            if (checkViolations.stream().anyMatch(ParallelRunner::isPartial)) return;
+
+            cache.put(ResultCache.key(digest, fingerprint), checkViolations);
+        });
+    }
+
+    /** Whether the check stopped on the budget, so that its result depends on the time it took. */
+    private static boolean isPartial(Violation violation) {
+        return ModifierViolation.Kind.BUDGET.key().equals(violation.getKey());
+    }
+
+    private static String getCheck(Violation violation) {
+        return violation.getModuleId() != null ? violation.getModuleId() : violation.getSourceName();
+    }
+
+    /**
+     * Fingerprint of every check, by id or class name, as it reports violations: its configuration with normalized
+     * templates, plus everything that affects all checks. Checks of the same class without an id share one.
+     */
+    private Map<String, Long> getFingerprints() throws CheckstyleException {
+        ModuleFactory factory = createModuleFactory();
+        StringBuilder common = new StringBuilder()
+                .append(AbstractCheck.class.getPackage().getImplementationVersion()).append(' ')
+                .append(ParallelRunner.class.getPackage().getImplementationVersion()).append(' ')
+                .append(charset).append(' ').append(tabWidth).append(' ').append(severity);
+        Map<String, StringBuilder> checks = new TreeMap<>();
+        for (String name : treeWalkerConfiguration.getPropertyNames()) {
+            common.append(' ').append(name).append('=').append(treeWalkerConfiguration.getProperty(name));
+        }
+        for (Configuration filter : filterConfigurations) describe(filter, common);
+        for (Configuration child : treeWalkerConfiguration.getChildren()) {
+            Object module = factory.createModule(child.getName());
+            if (module instanceof AbstractCheck) {
+                String check = getProperty(child, "id", module.getClass().getName());
+                describe(child, checks.computeIfAbsent(check, key -> new StringBuilder()));
+            }
+            else {
+                describe(child, common);
+            }
+        }
+
+        Map<String, Long> fingerprints = new TreeMap<>();
+        checks.forEach((check, description) ->
+                fingerprints.put(check, ResultCache.fingerprint(common + "\n" + description)));
+        return fingerprints;
+    }
+
+    private static void describe(Configuration configuration, StringBuilder description) throws CheckstyleException {
+        description.append('\n').append(configuration.getName());
+        for (String name : new TreeSet<>(Arrays.asList(configuration.getPropertyNames()))) {
+            String value = configuration.getProperty(name);
+            description.append(' ').append(name).append('=')
+                    .append(TEMPLATE_PROPERTIES.contains(name) ? TemplateCache.normalize(value) : value);
+            if (name.equals("changedLines")) {
+                description.append(':').append(ResultCache.fingerprint(ChangedLines.load(value).describe()));
+            }
+            else if (name.equals("baseline")) {
+                description.append(':').append(Baseline.load(Path.of(value)).describe());
+            }
+            else if (isFile(value)) {
+                description.append(':').append(describeFile(Path.of(value)));
+            }
+        }
+        new TreeMap<>(configuration.getMessages()).forEach((key, message) ->
+                description.append(' ').append(key).append(':').append(message));
+        for (Configuration child : configuration.getChildren()) describe(child, description);
+    }
+
+    /** Fingerprint of the content of a file a module reads, like the suppressions of a filter. */
+    private static long describeFile(Path file) throws CheckstyleException {
+        try {
+            return ResultCache.fingerprint(ResultCache.digest(Files.readAllBytes(file)));
+        }
+        catch (IOException e) {
+            throw new CheckstyleException("Unable to read " + file, e);
+        }
+    }
+
+    /**
+     * Whether a module has a property, like a baseline or the suppressions of a filter, that makes its results depend
+     * on the path of the file. Such files may change while the runner is kept, so the fingerprints are computed
+     * again for every cached run.
+     */
+    private static boolean isPathDependent(Configuration configuration) throws CheckstyleException {
+        for (String name : configuration.getPropertyNames()) {
+            if (PATH_PROPERTIES.contains(name) || isFile(configuration.getProperty(name))) return true;
+        }
+        for (Configuration child : configuration.getChildren()) {
+            if (isPathDependent(child)) return true;
+        }
+        return false;
+    }
+
+    private static boolean isFile(String value) {
+        try {
+            return !value.isBlank() && Files.isRegularFile(Path.of(value));
+        }
+        catch (InvalidPathException e) {
+            return false;
+        }
+    }
+
+    private static void collectProperty(Configuration configuration, String name, List<String> values)
+            throws CheckstyleException {
+        if (Arrays.asList(configuration.getPropertyNames()).contains(name)) values.add(configuration.getProperty(name));
+        for (Configuration child : configuration.getChildren()) collectProperty(child, name, values);
+    }
+
+    private static String getProperty(Configuration configuration, String name, String defaultValue)
+            throws CheckstyleException {
+        return Arrays.asList(configuration.getPropertyNames()).contains(name)
+                ? configuration.getProperty(name)
+                : defaultValue;
+    }
+
+
+    /**
+     * Usage: {@code ParallelRunner -c <configuration.xml> [-t <threads>] [--cache <file>] [-f sarif|ndjson]
+     * [-o <file>] [--update-baseline] <file or directory>...}. Prints violations the way Checkstyle does, or streams
+     * them in the format to the output file or standard output, and exits with the number of errors. With
+     * {@code --update-baseline}, prints all violations and writes them to the baseline files of the checks.
+     */
+    public static void main(String[] args) throws Exception {
+        Path configuration = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path cacheFile = null;
+        StreamingReporter.Format format = null;
+        Path output = null;
+        boolean updateBaseline = false;
+        boolean exitZero = false;
+        List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-c" -> configuration = Path.of(args[++i]);
+                case "-t" -> threads = Integer.parseInt(args[++i]);
+                case "--cache" -> cacheFile = Path.of(args[++i]);
+                case "-f" -> format = StreamingReporter.Format.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                case "-o" -> output = Path.of(args[++i]);
+                case "--update-baseline" -> updateBaseline = true;
+                case "--exit-zero" -> exitZero = true;
+                default -> paths.add(Path.of(args[i]));
+            }
+        }
+        if (configuration == null || paths.isEmpty()) {
+            System.err.println(
+                    "Usage: ParallelRunner -c <configuration.xml> [-t <threads>] [--cache <file>] [-f sarif|ndjson] "
+                            + "[-o <file>] [--update-baseline] [--exit-zero] <file or directory>..."
+            );
+            System.exit(-1);
+        }
+        if (updateBaseline) {
+            Baseline.startRecording();
+            cacheFile = null;
+        }
+
+        ParallelRunner runner = load(configuration, threads);
+        runner.setCacheFile(cacheFile);
+        if (updateBaseline) {
+            run(runner, findSources(paths), System.out);
+            Baseline.saveRecorded();
+            System.exit(0);
+        }
+        if (format == null) {
+            int errors = run(runner, findSources(paths), System.out);
+            System.exit(exitZero ? 0 : errors);
+        }
+
+        try (WritableByteChannel channel = output != null
+                ? FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)
+                : Channels.newChannel(System.out)) {
+            int errors = report(runner, findSources(paths), new StreamingReporter(channel, format));
+            System.exit(exitZero ? 0 : errors);
+        }
+    }
+
+    static int run(ParallelRunner runner, List<Path> files, PrintStream out) throws CheckstyleException {
+        var formatter = new AuditEventDefaultFormatter();
+        int[] errors = new int[1];
+        out.println("Starting audit...");
+        runner.check(files, result -> result.violations().forEach(violation -> {
+            if (violation.getSeverityLevel() == SeverityLevel.ERROR) errors[0]++;
+            if (violation.getSeverityLevel() == SeverityLevel.IGNORE) return;
+            out.println(formatter.format(new AuditEvent(runner, result.file().toString(), violation)));
+        }));
+        out.println("Audit done.");
+        return errors[0];
+    }
+
+
+    /** File to check, with its unsaved content or {@code null} to read it from disk. */
+    public record Source(Path file, @Nullable String content) {
+        public static Source of(Path file) {
+            return new Source(file, null);
+        }
+    }
+
+    /** Reports the audit to the listener, file by file as the files are checked, and returns the number of errors. */
+    static int report(ParallelRunner runner, List<Path> files, AuditListener listener) throws CheckstyleException {
+        int[] errors = new int[1];
+        listener.auditStarted(new AuditEvent(runner));
+        runner.check(files, result -> {
+            String file = result.file().toString();
+            listener.fileStarted(new AuditEvent(runner, file));
+            for (Violation violation : result.violations()) {
+                if (violation.getSeverityLevel() == SeverityLevel.ERROR) errors[0]++;
+                listener.addError(new AuditEvent(runner, file, violation));
+            }
+            listener.fileFinished(new AuditEvent(runner, file));
+        });
+        listener.auditFinished(new AuditEvent(runner));
+        return errors[0];
+    }
+
+
+    public record FileResult(Path file, SortedSet<Violation> violations) {}
+
+    private record Worker(TreeWalker treeWalker, FilterSet filters) {}
+}
@@ -0,0 +1,74 @@
+package io.github.dmitrybdev.checkstyle;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trie of the prefixes of wildcard template entries, like {@code @Json} for {@code @Json*}, walked one character of
+ * a name at a time, so that finding the prefixes of a name takes time proportional to the length of the name rather
+ * than to the number of prefixes. As in {@link AhoCorasick}, transitions are a table by character class, where the
+ * characters that occur in no prefix share one class with no transitions.
+ */
+final class PrefixTrie {
+
+    static final int NONE = -1;
+    static final int ROOT = 0;
+
+    private final int[] asciiClasses = new int[128];
+    private final Map<Character, Integer> otherClasses = new HashMap<>();
+    private final int[][] transitions;
+    private final int[] prefixes;
+
+
+    PrefixTrie(List<String> prefixes) {
+        int classes = 1;
+        for (String prefix : prefixes) {
+            for (int i = 0; i < prefix.length(); i++) {
+                char c = prefix.charAt(i);
+                if (getClass(c) != 0) continue;
+
+                if (c < 128) asciiClasses[c] = classes++;
+                else otherClasses.put(c, classes++);
+            }
+        }
+
+        List<int[]> next = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        next.add(new int[classes]);
+        ends.add(NONE);
+        for (int prefix = 0; prefix < prefixes.size(); prefix++) {
+            int state = ROOT;
+            for (int i = 0; i < prefixes.get(prefix).length(); i++) {
+                int characterClass = getClass(prefixes.get(prefix).charAt(i));
+                if (next.get(state)[characterClass] == 0) {
+                    next.get(state)[characterClass] = next.size();
+                    next.add(new int[classes]);
+                    ends.add(NONE);
+                }
+                state = next.get(state)[characterClass];
+            }
+            if (ends.get(state) == NONE) ends.set(state, prefix);
+        }
+
+        this.transitions = next.toArray(int[][]::new);
+        this.prefixes = ends.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+
+    /** State after the character, or {@link #NONE} if no prefix continues with it. */
+    int next(int state, char c) {
+        int target = transitions[state][getClass(c)];
+        return target != 0 ? target : NONE;
+    }
+
+    /** Index of the prefix that ends at the state, or {@link #NONE}. */
+    int prefix(int state) {
+        return prefixes[state];
+    }
+
+    private int getClass(char c) {
+        return c < 128 ? asciiClasses[c] : otherClasses.getOrDefault(c, 0);
+    }
+}
@@ -0,0 +1,267 @@
+package io.github.dmitrybdev.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Violations found by a check in a file, keyed by the content of the file, its path if the configuration makes
+ * results depend on it, and the fingerprint of the check configuration. Loaded by memory-mapping the cache file,
+ * which holds a sorted table of keys followed by the serialized violations, and written back on {@link #save()}
+ * with the entries of the file and those used or added by the run. Every entry keeps the day it was last used, and
+ * entries not used for {@value #MAX_AGE_DAYS} days are dropped, so a run over a part of the sources keeps the rest.
+ * <p>
+ * Violations are replayed with their formatted message, so they print the same but do not keep the message
+ * arguments.
+ */
+final class ResultCache {
+
+    private static final int MAGIC = 0x414f4302;
+    private static final int HEADER_SIZE = 8;
+    private static final int ENTRY_SIZE = 28;
+    static final int MAX_AGE_DAYS = 30;
+
+    private final Path file;
+    private final @Nullable ByteBuffer mapped;
+    private final int size;
+    private final Map<Key, byte[]> entries = new ConcurrentHashMap<>();
+    private final Map<String, Class<?>> sources = new ConcurrentHashMap<>();
+
+
+    private ResultCache(Path file, @Nullable ByteBuffer mapped, int size) {
+        this.file = file;
+        this.mapped = mapped;
+        this.size = size;
+    }
+
+    static ResultCache load(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) return new ResultCache(file, null, 0);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            boolean valid = mapped.capacity() >= HEADER_SIZE && mapped.getInt(0) == MAGIC
+                    && mapped.capacity() >= HEADER_SIZE + (long) mapped.getInt(4) * ENTRY_SIZE;
+            return valid ? new ResultCache(file, mapped, mapped.getInt(4)) : new ResultCache(file, null, 0);
+        }
+    }
+
+
+    /** Fingerprint of a check configuration, to combine with the file content in {@link #key}. */
+    static long fingerprint(String configuration) {
+        return ByteBuffer.wrap(sha256().digest(configuration.getBytes(StandardCharsets.UTF_8))).getLong();
+    }
+
+    /** Fingerprint of the content of a file that a check configuration refers to. */
+    static long fingerprint(byte[] digest) {
+        return ByteBuffer.wrap(digest).getLong();
+    }
+
+    static byte[] digest(byte[] content) {
+        return sha256().digest(content);
+    }
+
+    /** Digest of the content of the file at the path, for results that depend on where the file is. */
+    static byte[] digest(byte[] content, String path) {
+        MessageDigest digest = sha256();
+        digest.update(content);
+        digest.update((byte) 0);
+        return digest.digest(path.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Key key(byte[] digest, long fingerprint) {
+        ByteBuffer buffer = ByteBuffer.wrap(digest);
+        return new Key(buffer.getLong(), buffer.getLong() ^ fingerprint);
+    }
+
+
+    @Nullable List<Violation> get(Key key) {
+        byte[] entry = entries.get(key);
+        if (entry == null) {
+            entry = find(key);
+            if (entry == null) return null;
+            entries.putIfAbsent(key, entry);
+        }
+        return read(entry);
+    }
+
+    void put(Key key, Collection<Violation> violations) {
+        entries.put(key, write(violations));
+    }
+
+    void save() throws IOException {
+        save(LocalDate.now().toEpochDay());
+    }
+
+    /**
+     * Writes the entries of the run as used on the day, and the other entries of the file unless they were last used
+     * more than {@value #MAX_AGE_DAYS} days before it.
+     */
+    void save(long today) throws IOException {
+        Map<Key, Entry> sorted = new TreeMap<>();
+        for (int index = 0; mapped != null && index < size; index++) {
+            int position = HEADER_SIZE + index * ENTRY_SIZE;
+            int lastUsed = mapped.getInt(position + 24);
+            if (today - lastUsed > MAX_AGE_DAYS) continue;
+
+            byte[] entry = new byte[mapped.getInt(position + 20)];
+            mapped.get(mapped.getInt(position + 16), entry);
+            sorted.put(new Key(mapped.getLong(position), mapped.getLong(position + 8)), new Entry(entry, lastUsed));
+        }
+        entries.forEach((key, entry) -> sorted.put(key, new Entry(entry, (int) today)));
+
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            ByteBuffer table = ByteBuffer.allocate(HEADER_SIZE + sorted.size() * ENTRY_SIZE);
+            table.putInt(MAGIC).putInt(sorted.size());
+            int offset = table.capacity();
+            for (Map.Entry<Key, Entry> entry : sorted.entrySet()) {
+                table.putLong(entry.getKey().high()).putLong(entry.getKey().low())
+                        .putInt(offset).putInt(entry.getValue().violations().length)
+                        .putInt(entry.getValue().lastUsed());
+                offset += entry.getValue().violations().length;
+            }
+            channel.write(table.flip());
+            for (Entry entry : sorted.values()) channel.write(ByteBuffer.wrap(entry.violations()));
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Number of entries in the file as loaded. */
+    int size() {
+        return size;
+    }
+
+
+    private byte @Nullable [] find(Key key) {
+        if (mapped == null) return null;
+
+        int low = 0, high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int position = HEADER_SIZE + middle * ENTRY_SIZE;
+            int compared = Key.ORDER.compare(new Key(mapped.getLong(position), mapped.getLong(position + 8)), key);
+            if (compared < 0) low = middle + 1;
+            else if (compared > 0) high = middle - 1;
+            else {
+                byte[] entry = new byte[mapped.getInt(position + 20)];
+                mapped.get(mapped.getInt(position + 16), entry);
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private List<Violation> read(byte[] entry) {
+        ByteBuffer buffer = ByteBuffer.wrap(entry);
+        List<Violation> violations = new ArrayList<>(buffer.getInt());
+        while (buffer.hasRemaining()) {
+            int lineNo = buffer.getInt(), columnNo = buffer.getInt(), columnCharIndex = buffer.getInt();
+            int tokenType = buffer.getInt();
+            SeverityLevel severity = SeverityLevel.values()[buffer.get()];
+            String key = readString(buffer), moduleId = readString(buffer), source = readString(buffer);
+            String message = readString(buffer);
+            violations.add(new Violation(
+                    lineNo, columnNo, columnCharIndex, tokenType, null, key, new Object[0], severity,
+                    moduleId, getSource(source), "'" + message.replace("'", "''") + "'"
+            ));
+        }
+        return violations;
+    }
+
+    private static byte[] write(Collection<Violation> violations) {
+        try {
+            var bytes = new ByteArrayOutputStream();
+            var out = new DataOutputStream(bytes);
+            out.writeInt(violations.size());
+            for (Violation violation : violations) {
+                out.writeInt(violation.getLineNo());
+                out.writeInt(violation.getColumnNo());
+                out.writeInt(violation.getColumnCharIndex());
+                out.writeInt(violation.getTokenType());
+                out.writeByte(violation.getSeverityLevel().ordinal());
+                writeString(out, violation.getKey());
+                writeString(out, violation.getModuleId());
+                writeString(out, violation.getSourceName());
+                writeString(out, violation.getViolation());
+            }
+            return bytes.toByteArray();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, @Nullable String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static @Nullable String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) return null;
+
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private Class<?> getSource(String name) {
+        return sources.computeIfAbsent(name, className -> {
+            try {
+                return Class.forName(className, false, ResultCache.class.getClassLoader());
+            }
+            catch (ClassNotFoundException e) {
+                return ResultCache.class;
+            }
+        });
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    private record Entry(byte[] violations, int lastUsed) {}
+
+    record Key(long high, long low) implements Comparable<Key> {
+        private static final Comparator<Key> ORDER = Comparator.comparingLong(Key::high).thenComparingLong(Key::low);
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
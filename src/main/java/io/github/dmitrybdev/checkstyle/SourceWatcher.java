@@ -0,0 +1,199 @@
+package io.github.dmitrybdev.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.AuditEventDefaultFormatter;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import io.github.dmitrybdev.checkstyle.ParallelRunner.FileResult;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Checks the sources under a set of roots again whenever they change, and prints the violations that appeared and
+ * disappeared. Changes are collected until none come for the debounce interval, so a burst of saves is checked
+ * once, and only the changed files are checked, by the warm checks of one {@link ParallelRunner}. A violation is
+ * known by its file, check, key and message, not by its line, so the violations that only moved are not reported.
+ */
+public final class SourceWatcher {
+
+    private final ParallelRunner runner;
+    private final List<Path> roots;
+    private final long debounceMillis;
+    private final AuditEventDefaultFormatter formatter = new AuditEventDefaultFormatter();
+    private final Map<Path, List<Reported>> violations = new HashMap<>();
+
+
+    public SourceWatcher(ParallelRunner runner, List<Path> roots, long debounceMillis) {
+        this.runner = runner;
+        this.roots = List.copyOf(roots);
+        this.debounceMillis = debounceMillis;
+    }
+
+
+    /** Checks every source under the roots, and returns its violations as new ones. */
+    List<String> start() throws IOException, CheckstyleException {
+        violations.clear();
+        return update(ParallelRunner.findSources(roots));
+    }
+
+    /**
+     * Checks the files again, and returns the violations they no longer have prefixed with {@code -}, followed by
+     * the violations they did not have before prefixed with {@code +}, file by file. A violation the file has as
+     * many times as before is not reported, wherever it moved; fixed violations are printed as last reported. Files
+     * that no longer exist have no violations.
+     */
+    List<String> update(Collection<Path> files) throws CheckstyleException {
+        Map<Path, List<Reported>> updated = new TreeMap<>();
+        List<Path> existing = new ArrayList<>();
+        for (Path file : new TreeSet<>(files)) {
+            if (Files.isRegularFile(file)) existing.add(file);
+            else updated.put(file, List.of());
+        }
+        runner.check(existing, result -> updated.put(result.file(), format(result)));
+
+        List<String> diff = new ArrayList<>();
+        updated.forEach((file, current) -> {
+            List<Reported> previous = violations.getOrDefault(file, List.of());
+            addUnmatched(previous, current, "- ", diff);
+            addUnmatched(current, previous, "+ ", diff);
+
+            if (current.isEmpty()) violations.remove(file);
+            else violations.put(file, current);
+        });
+        return diff;
+    }
+
+    /** Adds the violations left after matching every one of the others with a violation of the same key. */
+    private static void addUnmatched(
+            List<Reported> violations, List<Reported> others, String prefix, List<String> diff
+    ) {
+        Map<Key, Integer> unmatched = new HashMap<>();
+        for (Reported other : others) unmatched.merge(other.key(), 1, Integer::sum);
+        for (Reported violation : violations) {
+            if (unmatched.merge(violation.key(), -1, Integer::sum) < 0) diff.add(prefix + violation.line());
+        }
+    }
+
+    /** Watches the roots until the thread is interrupted, and prints the violations changed by every burst. */
+    public void watch(PrintStream out) throws IOException, CheckstyleException, InterruptedException {
+        try (WatchService service = FileSystems.getDefault().newWatchService()) {
+            for (Path root : roots) register(service, root);
+            start().forEach(out::println);
+            out.println("Watching " + violations.values().stream().mapToInt(List::size).sum() + " violations...");
+
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<Path> changed = new TreeSet<>();
+                WatchKey key = service.take();
+                do {
+                    collect(service, key, changed);
+                } while ((key = service.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null);
+
+                long started = System.nanoTime();
+                List<String> diff = update(changed);
+                diff.forEach(out::println);
+                out.printf("Checked %d files in %d ms: %d new, %d fixed%n", changed.size(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started),
+                        diff.stream().filter(line -> line.startsWith("+")).count(),
+                        diff.stream().filter(line -> line.startsWith("-")).count());
+            }
+        }
+    }
+
+    private void collect(WatchService service, WatchKey key, Set<Path> changed) throws IOException {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changed.addAll(ParallelRunner.findSources(roots));
+                changed.addAll(violations.keySet());
+                continue;
+            }
+
+            Path path = directory.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                register(service, path);
+                changed.addAll(ParallelRunner.findSources(List.of(path)));
+            }
+            else if (path.toString().endsWith(".java")) {
+                changed.add(path);
+            }
+            else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                violations.keySet().stream().filter(file -> file.startsWith(path)).forEach(changed::add);
+            }
+        }
+        key.reset();
+    }
+
+    private static void register(WatchService service, Path root) throws IOException {
+        try (Stream<Path> directories = Files.walk(root)) {
+            for (Path directory : directories.filter(Files::isDirectory).toList()) {
+                directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+        }
+    }
+
+    private List<Reported> format(FileResult result) {
+        List<Reported> formatted = new ArrayList<>();
+        for (Violation violation : result.violations()) {
+            if (violation.getSeverityLevel() == SeverityLevel.IGNORE) continue;
+            formatted.add(new Reported(
+                    new Key(violation.getSourceName(), violation.getModuleId(), violation.getKey(),
+                            violation.getViolation()),
+                    formatter.format(new AuditEvent(runner, result.file().toString(), violation))
+            ));
+        }
+        return formatted;
+    }
+
+    private record Key(String check, @Nullable String id, String key, String message) {}
+
+    private record Reported(Key key, String line) {}
+
+
+    /**
+     * Usage: {@code SourceWatcher -c <configuration.xml> [-t <threads>] [--debounce <ms>] <directory>...}.
+     * Prints the violations found at start, then the changes of the violations after every change of the sources.
+     */
+    public static void main(String[] args) throws Exception {
+        Path configuration = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long debounceMillis = 100;
+        List<Path> roots = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-c" -> configuration = Path.of(args[++i]);
+                case "-t" -> threads = Integer.parseInt(args[++i]);
+                case "--debounce" -> debounceMillis = Long.parseLong(args[++i]);
+                default -> roots.add(Path.of(args[i]));
+            }
+        }
+        if (configuration == null || roots.isEmpty()) {
+            System.err.println(
+                    "Usage: SourceWatcher -c <configuration.xml> [-t <threads>] [--debounce <ms>] <directory>..."
+            );
+            System.exit(-1);
+        }
+
+        new SourceWatcher(ParallelRunner.load(configuration, threads), roots, debounceMillis).watch(System.out);
+    }
+}
@@ -0,0 +1,202 @@
+package io.github.dmitrybdev.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Audit listener that writes every violation as soon as it is reported, as a SARIF 2.1.0 log or as one JSON object
+ * per line, through a fixed size buffer, so the memory used does not depend on the number of violations. The rule
+ * id of a violation is the name of the check followed by the key of its message, like
+ * {@code AnnotationOrder/modifier.order}.
+ */
+public final class StreamingReporter implements AuditListener {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final Format format;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final StringBuilder json = new StringBuilder();
+    private boolean first = true;
+
+
+    public StreamingReporter(WritableByteChannel channel, Format format) {
+        this.channel = channel;
+        this.format = format;
+    }
+
+
+    @Override
+    public void auditStarted(AuditEvent event) {
+        if (format != Format.SARIF) return;
+
+        write("{\"version\":\"2.1.0\","
+                + "\"$schema\":\"https://json.schemastore.org/sarif-2.1.0.json\","
+                + "\"runs\":[{\"tool\":{\"driver\":{\"name\":\"annotation-order-check\","
+                + "\"informationUri\":\"https://github.com/dmitryb-dev/annotation-order-check\"}},"
+                + "\"results\":[");
+    }
+
+    @Override
+    public void auditFinished(AuditEvent event) {
+        if (format == Format.SARIF) write("]}]}\n");
+        drain();
+    }
+
+    @Override
+    public void fileStarted(AuditEvent event) {}
+
+    @Override
+    public void fileFinished(AuditEvent event) {}
+
+    @Override
+    public void addError(AuditEvent event) {
+        if (event.getSeverityLevel() == SeverityLevel.IGNORE) return;
+
+        json.setLength(0);
+        if (format == Format.SARIF) appendResult(event);
+        else appendLine(event);
+        write(json);
+        first = false;
+    }
+
+    @Override
+    public void addException(AuditEvent event, Throwable throwable) {
+        json.setLength(0);
+        if (format == Format.SARIF) {
+            if (!first) json.append(',');
+            json.append("{\"ruleId\":\"exception\",\"level\":\"error\",\"message\":{\"text\":");
+            appendString(String.valueOf(throwable));
+            json.append("},\"locations\":[");
+            appendLocation(event.getFileName(), 1, 0);
+            json.append("]}");
+        }
+        else {
+            json.append("{\"file\":");
+            appendString(event.getFileName());
+            json.append(",\"ruleId\":\"exception\",\"severity\":\"error\",\"message\":");
+            appendString(String.valueOf(throwable));
+            json.append("}\n");
+        }
+        write(json);
+        first = false;
+    }
+
+
+    /** Rule id of the violation: the id of the check or its name without {@code Check}, and the message key. */
+    static String getRuleId(AuditEvent event) {
+        return getCheckName(event.getModuleId(), event.getSourceName()) + "/" + event.getViolation().getKey();
+    }
+
+    /** Id of the check, or its class name without the package and {@code Check}, as Checkstyle prints it. */
+    static String getCheckName(@Nullable String moduleId, String sourceName) {
+        if (moduleId != null) return moduleId;
+
+        String name = sourceName.substring(sourceName.lastIndexOf('.') + 1);
+        return name.endsWith("Check") ? name.substring(0, name.length() - "Check".length()) : name;
+    }
+
+    private void appendResult(AuditEvent event) {
+        if (!first) json.append(',');
+        json.append("{\"ruleId\":");
+        appendString(getRuleId(event));
+        json.append(",\"level\":\"").append(getLevel(event.getSeverityLevel())).append("\",\"message\":{\"text\":");
+        appendString(event.getMessage());
+        json.append("},\"locations\":[");
+        appendLocation(event.getFileName(), event.getLine(), event.getColumn());
+        json.append("]}");
+    }
+
+    private void appendLocation(String file, int line, int column) {
+        json.append("{\"physicalLocation\":{\"artifactLocation\":{\"uri\":");
+        appendString(getUri(file));
+        json.append("},\"region\":{\"startLine\":").append(Math.max(line, 1));
+        if (column > 0) json.append(",\"startColumn\":").append(column);
+        json.append("}}}");
+    }
+
+    private void appendLine(AuditEvent event) {
+        json.append("{\"file\":");
+        appendString(event.getFileName());
+        json.append(",\"line\":").append(event.getLine())
+                .append(",\"column\":").append(event.getColumn())
+                .append(",\"severity\":\"").append(event.getSeverityLevel().getName())
+                .append("\",\"ruleId\":");
+        appendString(getRuleId(event));
+        json.append(",\"message\":");
+        appendString(event.getMessage());
+        json.append("}\n");
+    }
+
+    private void appendString(String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) json.append("\\u%04x".formatted((int) c));
+                    else json.append(c);
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    private static String getLevel(SeverityLevel severity) {
+        return switch (severity) {
+            case ERROR -> "error";
+            case WARNING -> "warning";
+            case INFO -> "note";
+            case IGNORE -> "none";
+        };
+    }
+
+    private static String getUri(String file) {
+        Path path = Path.of(file);
+        return path.isAbsolute() ? path.toUri().toString() : file.replace('\\', '/');
+    }
+
+
+    private void write(CharSequence text) {
+        CharBuffer chars = CharBuffer.wrap(text);
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (result.isUnderflow()) break;
+            if (result.isOverflow()) drain();
+            else throw new UncheckedIOException(new IOException("Unable to encode " + result));
+        }
+        encoder.reset();
+    }
+
+    private void drain() {
+        try {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    public enum Format { SARIF, NDJSON }
+}
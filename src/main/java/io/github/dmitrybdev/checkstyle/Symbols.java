@@ -0,0 +1,37 @@
+package io.github.dmitrybdev.checkstyle;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JVM-wide table of interned modifier texts. Only templates add symbols, so the table is bounded by
+ * the vocabulary of the configured templates, and modifiers missing from it can't match any template.
+ */
+final class Symbols {
+
+    static final int NONE = -1;
+
+    private static final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+
+    private Symbols() {}
+
+
+    static int intern(String text) {
+        Integer id = ids.get(text);
+        if (id != null) return id;
+
+        synchronized (ids) {
+            return ids.computeIfAbsent(text, key -> ids.size());
+        }
+    }
+
+    static int find(String text) {
+        Integer id = ids.get(text);
+        return id != null ? id : NONE;
+    }
+
+    static int size() {
+        return ids.size();
+    }
+}
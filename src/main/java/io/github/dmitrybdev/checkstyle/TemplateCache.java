@@ -0,0 +1,124 @@
+package io.github.dmitrybdev.checkstyle;
+
+import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.Order;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * JVM-wide cache of compiled templates, keyed by the normalized template text, so that check instances
+ * with the same configuration share one immutable {@link Order}. Entries are held weakly and disappear
+ * once no check uses them; the number of entries is capped, and templates beyond the cap are compiled
+ * without caching.
+ */
+public final class TemplateCache {
+
+    static final int MAX_SIZE = 1024;
+
+    private static final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Order> released = new ReferenceQueue<>();
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+
+    private TemplateCache() {}
+
+
+    static Order get(String template, Function<String, Order> compiler) {
+        purge();
+
+        String key = normalize(template);
+        Order order = get(key);
+        if (order != null) {
+            hits.increment();
+            return order;
+        }
+
+        misses.increment();
+        Order compiled = compiler.apply(key);
+        if (entries.size() >= MAX_SIZE) return compiled;
+
+        Order[] result = new Order[1];
+        entries.compute(key, (k, existing) -> {
+            result[0] = existing != null ? existing.get() : null;
+            if (result[0] != null) return existing;
+
+            result[0] = compiled;
+            return new Entry(k, compiled);
+        });
+        return result[0];
+    }
+
+    public static Stats stats() {
+        purge();
+        return new Stats(hits.sum(), misses.sum(), entries.size());
+    }
+
+
+    /**
+     * Rewrites the template as modifiers separated by a single space and groups separated by a comma,
+     * which parses to the same {@link Order} as the original text.
+     */
+    static String normalize(String template) {
+        StringBuilder normalized = new StringBuilder(template.length());
+        boolean groupSeparator = false, modifierSeparator = false;
+        int whitespaces = 0;
+        for (int i = 0; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (isWhitespace(c)) {
+                if (++whitespaces >= 3) groupSeparator = true;
+                modifierSeparator = true;
+                continue;
+            }
+            whitespaces = 0;
+            if (c == ',') {
+                groupSeparator = true;
+                continue;
+            }
+
+            if (!normalized.isEmpty() && groupSeparator) normalized.append(',');
+            else if (!normalized.isEmpty() && modifierSeparator) normalized.append(' ');
+            normalized.append(c);
+            groupSeparator = false;
+            modifierSeparator = false;
+        }
+        return normalized.toString();
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static Order get(String key) {
+        Entry entry = entries.get(key);
+        return entry != null ? entry.get() : null;
+    }
+
+    private static void purge() {
+        for (Reference<? extends Order> reference; (reference = released.poll()) != null; ) {
+            Entry entry = (Entry) reference;
+            entries.remove(entry.key, entry);
+        }
+    }
+
+
+    private static final class Entry extends WeakReference<Order> {
+        private final String key;
+
+        private Entry(String key, Order order) {
+            super(order, released);
+            this.key = key;
+        }
+    }
+
+    public record Stats(long hits, long misses, int size) {
+        public double hitRate() {
+            return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+        }
+    }
+}
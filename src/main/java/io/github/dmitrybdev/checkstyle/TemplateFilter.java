@@ -0,0 +1,101 @@
+package io.github.dmitrybdev.checkstyle;
+
+import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.GroupOrder;
+import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.ModifierOrder;
+import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.Order;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tells from the text of a file which templates it may violate. A declaration violates a template only when it has
+ * at least two modifiers matching the template, so a file with fewer than two occurrences of the template's words
+ * (counting kinds like {@code type} as always present) cannot violate it. Annotations are looked up by their simple
+ * name without {@code @}, anywhere in the text, so the scan may only overestimate. A wildcard is looked up by the
+ * simple name part of its prefix, and a template with a wildcard of a whole package, like {@code @javax.persistence.*},
+ * may be violated by any file.
+ */
+public final class TemplateFilter {
+
+    private static final LongAdder totalFiles = new LongAdder();
+    private static final LongAdder totalSkipped = new LongAdder();
+
+    private final AhoCorasick words;
+    private final int[][] weights;
+    private final int[] kinds;
+
+
+    TemplateFilter(List<Order> templates) {
+        Map<String, int[]> weightsByWord = new HashMap<>();
+        kinds = new int[templates.size()];
+        for (int template = 0; template < templates.size(); template++) {
+            for (GroupOrder group : templates.get(template).groups()) {
+                for (ModifierOrder modifier : group.modifiers()) {
+                    if (AbstractModifiersCheck.isKind(modifier.modifier())) {
+                        kinds[template]++;
+                        continue;
+                    }
+                    String word = getWord(modifier.prefix());
+                    if (word.isEmpty()) {
+                        if (modifier.isWildcard()) kinds[template] += 2;
+                        continue;
+                    }
+
+                    weightsByWord.computeIfAbsent(word, w -> new int[templates.size()])[template]++;
+                }
+            }
+        }
+
+        List<String> wordList = new ArrayList<>(weightsByWord.keySet());
+        this.words = new AhoCorasick(wordList);
+        this.weights = wordList.stream().map(weightsByWord::get).toArray(int[][]::new);
+    }
+
+    public static Stats stats() {
+        return new Stats(totalFiles.sum(), totalSkipped.sum());
+    }
+
+
+    /** Bit mask of the templates, by index, that the lines may violate. Words never span lines. */
+    long scan(String[] lines) {
+        int[] counts = kinds.clone();
+        long[] candidates = { getCandidates(counts) };
+        long all = (1L << counts.length) - 1;
+        for (int i = 0; i < lines.length && candidates[0] != all; i++) {
+            words.scan(lines[i], word -> {
+                for (int template = 0; template < counts.length; template++) {
+                    counts[template] += weights[word][template];
+                }
+                candidates[0] = getCandidates(counts);
+                return candidates[0] != all;
+            });
+        }
+
+        totalFiles.increment();
+        if (candidates[0] == 0) totalSkipped.increment();
+        return candidates[0];
+    }
+
+    private static long getCandidates(int[] counts) {
+        long candidates = 0;
+        for (int template = 0; template < counts.length; template++) {
+            if (counts[template] >= 2) candidates |= 1L << template;
+        }
+        return candidates;
+    }
+
+    private static String getWord(String modifier) {
+        String name = modifier.startsWith("@") ? modifier.substring(1) : modifier;
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+
+    public record Stats(long files, long skipped) {
+        public double skipRate() {
+            return files == 0 ? 0 : (double) skipped / files;
+        }
+    }
+}
@@ -0,0 +1,580 @@
+package io.github.dmitrybdev.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.JavaParser;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.Modifiers;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static com.puppycrawl.tools.checkstyle.api.TokenTypes.*;
+
+/**
+ * Infers the templates of {@link AnnotationOrderCheck} and {@link DeclarationOrderCheck} from existing code. The
+ * sources are parsed on several threads, and the modifiers of every declaration are counted into per-thread
+ * matrices: how often one modifier precedes another, and how often adjacent modifiers share a line or not. Members
+ * of class bodies are counted the same way by their visibility, {@code static} and kind. Memory depends on the number
+ * of distinct modifiers, not on the number of files; the files are streamed from the directories as they are walked.
+ * <p>
+ * Modifiers are ordered so that as few pairs as possible precede each other against the order, and split into the
+ * groups that least violate the same-line and new-line rules of the annotation order check. Modifiers seen on fewer
+ * than the minimum number of declarations are left out, and so are the rarest ones when there are more than
+ * {@value #MAX_NAMES} of a kind of declaration.
+ */
+public final class TemplateInference {
+
+    static final int MAX_NAMES = 256;
+
+    private final int threads;
+    private final int minCount;
+
+
+    public TemplateInference(int threads, int minCount) {
+        this.threads = threads;
+        this.minCount = minCount;
+    }
+
+
+    /** Templates inferred from the Java sources under the given files and directories. */
+    public Templates infer(Collection<Path> paths) throws IOException {
+        Counts[] totals = { new Counts(), new Counts(), new Counts(), new Counts() };
+        AtomicLong files = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicReference<RuntimeException> error = new AtomicReference<>();
+
+        try (Stream<Path> sources = paths.stream().flatMap(TemplateInference::walk)) {
+            Iterator<Path> iterator = sources.iterator();
+            List<Thread> workers = new ArrayList<>();
+            List<Counts[]> results = new ArrayList<>();
+            for (int worker = 0; worker < Math.max(threads, 1); worker++) {
+                Counts[] counts = { new Counts(), new Counts(), new Counts(), new Counts() };
+                results.add(counts);
+                Thread thread = new Thread(() -> {
+                    var collector = new Collector(counts);
+                    try {
+                        for (Path file; (file = next(iterator)) != null; ) {
+                            if (collector.collect(file)) files.incrementAndGet();
+                            else failed.incrementAndGet();
+                        }
+                    }
+                    catch (RuntimeException e) {
+                        error.compareAndSet(null, e);
+                    }
+                }, "template-inference-" + worker);
+                thread.start();
+                workers.add(thread);
+            }
+            for (Thread worker : workers) worker.join();
+            if (error.get() != null) throw error.get();
+
+            for (Counts[] counts : results) {
+                for (int i = 0; i < totals.length; i++) totals[i].merge(counts[i]);
+            }
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while inferring templates", e);
+        }
+
+        int dropped = 0;
+        for (Counts total : totals) dropped += total.dropped();
+        return new Templates(
+                totals[0].inferTemplate(minCount, true),
+                totals[1].inferTemplate(minCount, true),
+                totals[2].inferTemplate(minCount, true),
+                totals[3].inferTemplate(minCount, false),
+                files.get(), failed.get(), dropped
+        );
+    }
+
+    private static Stream<Path> walk(Path path) {
+        try {
+            return Files.walk(path).filter(file -> Files.isRegularFile(file) && file.toString().endsWith(".java"));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static @Nullable Path next(Iterator<Path> iterator) {
+        synchronized (iterator) {
+            return iterator.hasNext() ? iterator.next() : null;
+        }
+    }
+
+
+    /**
+     * Templates to configure, as text that the checks parse, with the numbers of files parsed and failed, and of
+     * modifiers left out as too rare to count.
+     */
+    public record Templates(
+            String typeTemplate, String fieldTemplate, String methodTemplate, String template,
+            long files, long failed, int dropped
+    ) {
+        /** Properties of the checks, as Checkstyle configuration. */
+        public String toXml() {
+            return """
+                    <!-- Inferred from %d files, %d failed to parse, %d rare modifiers left out -->
+                    <module name="io.github.dmitrybdev.checkstyle.AnnotationOrderCheck">
+                        <property name="typeTemplate" value="%s"/>
+                        <property name="fieldTemplate" value="%s"/>
+                        <property name="methodTemplate" value="%s"/>
+                    </module>
+                    <module name="io.github.dmitrybdev.checkstyle.DeclarationOrderCheck">
+                        <property name="template" value="%s"/>
+                    </module>
+                    """.formatted(files, failed, dropped, typeTemplate, fieldTemplate, methodTemplate, template);
+        }
+    }
+
+
+    /** Counts the modifiers of the declarations of one file after another, on one thread. */
+    private static final class Collector {
+        private final AbstractModifiersCheck check = new AbstractModifiersCheck();
+        private final Counts[] counts;
+        private final Modifiers modifiers = new Modifiers();
+        private final StringBuilder key = new StringBuilder();
+        private int[] ids = new int[16];
+        private int[] lineNos = new int[16];
+        private long[] seen = new long[16];
+        private final List<DetailAST> stack = new ArrayList<>();
+
+        private Collector(Counts[] counts) {
+            this.counts = counts;
+        }
+
+        /** Counts the declarations of the file, and returns false if it cannot be parsed. */
+        boolean collect(Path file) {
+            try {
+                collect(JavaParser.parseFile(file.toFile(), JavaParser.Options.WITHOUT_COMMENTS));
+                return true;
+            }
+            catch (IOException | CheckstyleException e) {
+                return false;
+            }
+        }
+
+        private void collect(DetailAST root) {
+            stack.clear();
+            for (DetailAST node = root; node != null; node = node.getNextSibling()) stack.add(node);
+            while (!stack.isEmpty()) {
+                DetailAST node = stack.remove(stack.size() - 1);
+                if (node.getType() == OBJBLOCK) collectMembers(node);
+                int category = getCategory(node.getType());
+                if (category >= 0 && check.extractModifiers(node, modifiers)) collectModifiers(counts[category]);
+
+                for (DetailAST child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+                    stack.add(child);
+                }
+            }
+        }
+
+        private int getCategory(int token) {
+            return switch (token) {
+                case CLASS_DEF, INTERFACE_DEF, ANNOTATION_DEF, RECORD_DEF, ENUM_DEF -> 0;
+                case VARIABLE_DEF, ANNOTATION_FIELD_DEF, PARAMETER_DEF -> 1;
+                case CTOR_DEF, METHOD_DEF -> 2;
+                default -> -1;
+            };
+        }
+
+        /** Counts every pair of modifiers in the order they are written, other than kinds of declarations. */
+        private void collectModifiers(Counts counts) {
+            int size = 0;
+            ensureCapacity(modifiers.size());
+            counts.reserve(modifiers.size());
+            for (int i = 0; i < modifiers.size(); i++) {
+                if (AbstractModifiersCheck.isKind(modifiers.text(i))) continue;
+
+                int id = counts.id(modifiers.text(i));
+                if (contains(ids, size, id)) continue;
+                ids[size] = id;
+                lineNos[size] = modifiers.lineNo(i);
+                size++;
+            }
+
+            for (int i = 0; i < size; i++) {
+                counts.occurrences[ids[i]]++;
+                for (int j = i + 1; j < size; j++) counts.before[counts.index(ids[i], ids[j])]++;
+                if (i > 0) {
+                    int pair = counts.index(ids[i - 1], ids[i]);
+                    if (lineNos[i] == lineNos[i - 1]) counts.sameLine[pair]++;
+                    else counts.newLine[pair]++;
+                }
+            }
+        }
+
+        /** Counts, for every member of the body, the members of every kind before it. */
+        private void collectMembers(DetailAST body) {
+            Counts members = counts[3];
+            Arrays.fill(seen, 0);
+            for (DetailAST member = body.getFirstChild(); member != null; member = member.getNextSibling()) {
+                if (!check.extractModifiers(member, modifiers)) continue;
+
+                String key = getKey();
+                if (key == null) continue;
+                int id = members.id(key);
+                if (seen.length < members.size()) seen = Arrays.copyOf(seen, members.capacity());
+
+                members.occurrences[id]++;
+                for (int other = 0; other < members.size(); other++) {
+                    if (other != id && seen[other] > 0) members.before[members.index(other, id)] += seen[other];
+                }
+                seen[id]++;
+            }
+        }
+
+        /**
+         * Visibility, {@code static} and kind of the member, like {@code private static field}, or {@code null} if
+         * it is not a declaration.
+         */
+        private @Nullable String getKey() {
+            key.setLength(0);
+            String kind = null;
+            boolean isStatic = false;
+            for (int i = 0; i < modifiers.size(); i++) {
+                switch (modifiers.text(i)) {
+                    case "public", "protected", "private" -> key.append(modifiers.text(i)).append(' ');
+                    case "static" -> isStatic = true;
+                    case "field", "method", "constructor", "class", "interface", "enum", "record", "@interface" ->
+                            kind = modifiers.text(i);
+                    default -> {}
+                }
+            }
+            if (kind == null) return null;
+            if (isStatic) key.append("static ");
+            return key.append(kind).toString();
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (ids.length >= capacity) return;
+            ids = Arrays.copyOf(ids, capacity * 2);
+            lineNos = Arrays.copyOf(lineNos, capacity * 2);
+        }
+
+        private static boolean contains(int[] values, int size, int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) return true;
+            }
+            return false;
+        }
+    }
+
+
+    /**
+     * Occurrences of names, and square matrices of counts of ordered pairs of them: how often the first precedes the
+     * second, and how often they are adjacent on the same line or on different lines. Names are kept by frequency:
+     * when there is no room for the names of a declaration, the rarer half of the names is dropped.
+     */
+    static final class Counts {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+        private final Set<String> dropped = new HashSet<>();
+        private int capacity = 16;
+        long[] occurrences = new long[capacity];
+        long[] before = new long[capacity * capacity];
+        long[] sameLine = new long[capacity * capacity];
+        long[] newLine = new long[capacity * capacity];
+
+        int id(String name) {
+            Integer id = ids.get(name);
+            if (id != null) return id;
+
+            if (names.size() == capacity) grow();
+            ids.put(name, names.size());
+            names.add(name);
+            return names.size() - 1;
+        }
+
+        /** Makes room for the given number of new names within {@value #MAX_NAMES}, before ids are taken. */
+        void reserve(int count) {
+            if (names.size() + count > MAX_NAMES) prune(Math.min(MAX_NAMES / 2, MAX_NAMES - count));
+        }
+
+        int size() { return names.size(); }
+        int capacity() { return capacity; }
+
+        /** Number of names dropped and not seen again since. */
+        int dropped() {
+            return (int) dropped.stream().filter(name -> !ids.containsKey(name)).count();
+        }
+
+        int index(int first, int second) {
+            return first * capacity + second;
+        }
+
+        /** Adds the counts of the other names, keeping the {@value #MAX_NAMES} most frequent names of both. */
+        void merge(Counts other) {
+            Map<String, Long> merged = new HashMap<>();
+            for (int id = 0; id < size(); id++) merged.put(names.get(id), occurrences[id]);
+            for (int id = 0; id < other.size(); id++) {
+                merged.merge(other.names.get(id), other.occurrences[id], Long::sum);
+            }
+            Set<String> retained = merged.keySet();
+            if (merged.size() > MAX_NAMES) {
+                Comparator<Map.Entry<String, Long>> byOccurrences =
+                        Map.Entry.<String, Long>comparingByValue().reversed();
+                retained = new HashSet<>(merged.entrySet().stream()
+                        .sorted(byOccurrences.thenComparing(Map.Entry.comparingByKey()))
+                        .limit(MAX_NAMES).map(Map.Entry::getKey).toList());
+            }
+
+            boolean[] kept = new boolean[size()];
+            for (int id = 0; id < size(); id++) kept[id] = retained.contains(names.get(id));
+            retain(kept);
+            dropped.addAll(other.dropped);
+            int[] mapped = new int[other.size()];
+            for (int i = 0; i < other.size(); i++) {
+                String name = other.names.get(i);
+                if (retained.contains(name)) mapped[i] = id(name);
+                else {
+                    mapped[i] = -1;
+                    dropped.add(name);
+                }
+            }
+
+            for (int i = 0; i < other.size(); i++) {
+                if (mapped[i] < 0) continue;
+
+                occurrences[mapped[i]] += other.occurrences[i];
+                for (int j = 0; j < other.size(); j++) {
+                    if (mapped[j] < 0) continue;
+
+                    int from = other.index(i, j), to = index(mapped[i], mapped[j]);
+                    before[to] += other.before[from];
+                    sameLine[to] += other.sameLine[from];
+                    newLine[to] += other.newLine[from];
+                }
+            }
+        }
+
+        /**
+         * Template of the names seen at least the minimum number of times, ordered to keep the fewest pairs out of
+         * order, and, if grouped, split into groups of names written on one line; otherwise every name is a group.
+         */
+        String inferTemplate(int minCount, boolean grouped) {
+            List<Integer> remaining = new ArrayList<>();
+            for (int id = 0; id < size(); id++) {
+                if (occurrences[id] >= minCount) remaining.add(id);
+            }
+            remaining.sort((first, second) -> names.get(first).compareTo(names.get(second)));
+
+            long[] scores = new long[remaining.size()];
+            for (int i = 0; i < scores.length; i++) {
+                for (int other : remaining) {
+                    scores[i] += before[index(remaining.get(i), other)] - before[index(other, remaining.get(i))];
+                }
+            }
+
+            int[] order = new int[remaining.size()];
+            boolean[] placed = new boolean[remaining.size()];
+            for (int position = 0; position < order.length; position++) {
+                int best = -1;
+                for (int i = 0; i < scores.length; i++) {
+                    if (!placed[i] && (best < 0 || scores[i] > scores[best])) best = i;
+                }
+                placed[best] = true;
+                order[position] = remaining.get(best);
+                for (int i = 0; i < scores.length; i++) {
+                    scores[i] -= before[index(remaining.get(i), order[position])]
+                            - before[index(order[position], remaining.get(i))];
+                }
+            }
+
+            improveOrder(order);
+
+            int[] groupEnds = grouped ? findGroups(order) : null;
+            StringBuilder template = new StringBuilder();
+            for (int position = 0, group = 0; position < order.length; position++) {
+                if (position > 0) {
+                    boolean newGroup = groupEnds == null || groupEnds[group] == position;
+                    template.append(newGroup ? ", " : " ");
+                    if (newGroup && groupEnds != null) group++;
+                }
+                template.append(names.get(order[position]));
+            }
+            return template.toString();
+        }
+
+        /**
+         * Moves every name to the place in the order where the fewest pairs are out of order, until no move helps.
+         * The greedy order weighs names by how often they occur, so rare names may need to cross frequent ones.
+         */
+        private void improveOrder(int[] order) {
+            for (boolean moved = true; moved; ) {
+                moved = false;
+                for (int from = 0; from < order.length; from++) {
+                    int name = order[from];
+                    int to = from;
+                    long delta = 0, bestDelta = 0;
+                    for (int left = from - 1; left >= 0; left--) {
+                        delta += before[index(order[left], name)] - before[index(name, order[left])];
+                        if (delta < bestDelta) {
+                            bestDelta = delta;
+                            to = left;
+                        }
+                    }
+                    delta = 0;
+                    for (int right = from + 1; right < order.length; right++) {
+                        delta += before[index(name, order[right])] - before[index(order[right], name)];
+                        if (delta < bestDelta) {
+                            bestDelta = delta;
+                            to = right;
+                        }
+                    }
+                    if (to == from) continue;
+
+                    if (to < from) System.arraycopy(order, to, order, to + 1, from - to);
+                    else System.arraycopy(order, from + 1, order, from, to - from);
+                    order[to] = name;
+                    moved = true;
+                }
+            }
+        }
+
+        /**
+         * Ends of the groups that minimize the adjacent pairs written on different lines within a group and on one
+         * line across groups, by dynamic programming over the places to split the order.
+         */
+        private int[] findGroups(int[] order) {
+            int n = order.length;
+            long[] best = new long[n + 1];
+            int[] start = new int[n + 1];
+            for (int end = 1; end <= n; end++) {
+                best[end] = Long.MAX_VALUE;
+                long cost = 0;
+                for (int first = end - 1; first >= 0; first--) {
+                    for (int other = first + 1; other < end; other++) {
+                        int a = order[first], b = order[other];
+                        cost += newLine[index(a, b)] + newLine[index(b, a)] - sameLine[index(a, b)];
+                    }
+                    if (best[first] + cost <= best[end]) {
+                        best[end] = best[first] + cost;
+                        start[end] = first;
+                    }
+                }
+            }
+
+            List<Integer> ends = new ArrayList<>();
+            for (int end = n; end > 0; end = start[end]) ends.add(0, end);
+            return ends.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        /** Keeps the given number of the most frequent names, in the order they were first seen, and drops the rest. */
+        void prune(int keep) {
+            if (names.size() <= keep) return;
+
+            Integer[] byOccurrences = new Integer[names.size()];
+            for (int id = 0; id < byOccurrences.length; id++) byOccurrences[id] = id;
+            Arrays.sort(byOccurrences, (first, second) -> Long.compare(occurrences[second], occurrences[first]));
+            boolean[] kept = new boolean[names.size()];
+            for (int i = 0; i < keep; i++) kept[byOccurrences[i]] = true;
+            retain(kept);
+        }
+
+        /** Drops the names that are not kept, and moves the kept ones down to the first ids, in the same order. */
+        private void retain(boolean[] kept) {
+            int keep = 0;
+            for (boolean isKept : kept) if (isKept) keep++;
+            if (keep == names.size()) return;
+
+            int[] mapped = new int[names.size()];
+            List<String> keptNames = new ArrayList<>(keep);
+            for (int id = 0; id < names.size(); id++) {
+                if (kept[id]) {
+                    mapped[id] = keptNames.size();
+                    keptNames.add(names.get(id));
+                }
+                else dropped.add(names.get(id));
+            }
+
+            long[] prunedOccurrences = new long[capacity];
+            long[] prunedBefore = new long[capacity * capacity];
+            long[] prunedSameLine = new long[capacity * capacity];
+            long[] prunedNewLine = new long[capacity * capacity];
+            for (int i = 0; i < names.size(); i++) {
+                if (!kept[i]) continue;
+
+                prunedOccurrences[mapped[i]] = occurrences[i];
+                for (int j = 0; j < names.size(); j++) {
+                    if (!kept[j]) continue;
+
+                    int from = index(i, j), to = index(mapped[i], mapped[j]);
+                    prunedBefore[to] = before[from];
+                    prunedSameLine[to] = sameLine[from];
+                    prunedNewLine[to] = newLine[from];
+                }
+            }
+            occurrences = prunedOccurrences;
+            before = prunedBefore;
+            sameLine = prunedSameLine;
+            newLine = prunedNewLine;
+
+            names.clear();
+            names.addAll(keptNames);
+            ids.clear();
+            for (int id = 0; id < names.size(); id++) ids.put(names.get(id), id);
+        }
+
+        private void grow() {
+            int grown = capacity * 2;
+            occurrences = Arrays.copyOf(occurrences, grown);
+            before = resize(before, grown);
+            sameLine = resize(sameLine, grown);
+            newLine = resize(newLine, grown);
+            capacity = grown;
+        }
+
+        private long[] resize(long[] matrix, int grown) {
+            long[] resized = new long[grown * grown];
+            for (int row = 0; row < capacity; row++) {
+                System.arraycopy(matrix, row * capacity, resized, row * grown, capacity);
+            }
+            return resized;
+        }
+    }
+
+
+    /**
+     * Usage: {@code TemplateInference [-t <threads>] [--min-count <declarations>] <directory>...}. Prints the
+     * inferred templates as Checkstyle configuration of the checks.
+     */
+    public static void main(String[] args) throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int minCount = 10;
+        List<Path> roots = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-t" -> threads = Integer.parseInt(args[++i]);
+                case "--min-count" -> minCount = Integer.parseInt(args[++i]);
+                default -> roots.add(Path.of(args[i]));
+            }
+        }
+        if (roots.isEmpty()) {
+            System.err.println("Usage: TemplateInference [-t <threads>] [--min-count <declarations>] <directory>...");
+            System.exit(-1);
+        }
+
+        System.out.print(new TemplateInference(threads, minCount).infer(roots).toXml());
+    }
+}
@@ -1,15 +1,24 @@
 package io.github.dmitrybdev.checkstyle;
 
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.GroupOrder;
 import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.Modifier;
 import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.ModifierOrder;
+import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.ModifierViolation;
 import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.Order;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
 
+import static com.puppycrawl.tools.checkstyle.api.TokenTypes.*;
 import static org.assertj.core.api.Assertions.assertThat;
 
 class AbstractModifiersCheckTest extends CheckstyleTest {
@@ -96,11 +105,199 @@ class AbstractModifiersCheckTest extends CheckstyleTest {
         assertThat(annotationWithArgsOrder.groupOrder()).isEqualTo(1);
         assertThat(annotationWithArgsOrder.order()).isEqualTo(1);
 
-        AbstractModifiersCheck.GroupOrder annotatedOrder = order.getOrder(List.of(
+        GroupOrder annotatedOrder = order.getOrder(List.of(
                 new Modifier("@Annotation", false, -1, -1),
                 new Modifier("private", false, -1, -1)
         ));
         assertThat(annotatedOrder).isNotNull();
         assertThat(annotatedOrder.order()).isEqualTo(0);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getOrderFallsBackToModifierWithoutArgs() {
+        Order order = new AbstractModifiersCheck().parseTemplate("""
+            @Getter() @Lazy, @Getter @Lazy() public   @Lazy private
+        """);
+
+        assertThat(order.getOrder(new Modifier("@Getter", true, -1, -1)))
+                .isEqualTo(new ModifierOrder("@Getter", true, 0, 0));
+        assertThat(order.getOrder(new Modifier("@Getter", false, -1, -1)))
+                .isEqualTo(new ModifierOrder("@Getter", false, 1, 2));
+        assertThat(order.getOrder(new Modifier("@Lazy", true, -1, -1)))
+                .isEqualTo(new ModifierOrder("@Lazy", true, 1, 3));
+        assertThat(order.getOrder(new Modifier("@Lazy", false, -1, -1)))
+                .isEqualTo(new ModifierOrder("@Lazy", false, 0, 1));
+        assertThat(order.getOrder(new Modifier("public", true, -1, -1)))
+                .isEqualTo(new ModifierOrder("public", false, 1, 4));
+        assertThat(order.getOrder(new Modifier("@Unknown", false, -1, -1))).isNull();
+        assertThat(new AbstractModifiersCheck().parseTemplate("@Bean()")
+                .getOrder(new Modifier("@Bean", false, -1, -1))).isNull();
+    }
+
+    @Test
+    public void getOrderPicksLongestFirstDeclaredGroup() {
+        Order order = new AbstractModifiersCheck().parseTemplate("""
+            field
+            private field
+            public method
+            public @Override method
+            @Override public method
+            public method @Bean()
+        """);
+
+        assertThat(order.getOrder(modifiers("private", "type", "field"))).hasToString("private field");
+        assertThat(order.getOrder(modifiers("public", "@Override", "method"))).hasToString("public @Override method");
+        assertThat(order.getOrder(modifiers("public", "@Bean", "method"))).hasToString("public method");
+        assertThat(order.getOrder(List.of(
+                new Modifier("public", false, -1, -1),
+                new Modifier("@Bean", true, -1, -1),
+                new Modifier("method", false, -1, -1)
+        ))).hasToString("public method @Bean()");
+        assertThat(order.getOrder(modifiers("class"))).isNull();
+        assertThat(order.matches(modifiers("protected", "field"))).isTrue();
+        assertThat(order.matches(modifiers("protected", "class"))).isFalse();
+        assertThat(order.matches((List<Modifier>) null)).isFalse();
+    }
+
+    @Test
+    public void getOrderMatchesReferenceSemantics() {
+        var random = new Random(42);
+        List<String> vocabulary = IntStream.range(0, 100).mapToObj(i -> "@A" + i).toList();
+        for (int iteration = 0; iteration < 200; iteration++) {
+            var template = new StringBuilder();
+            for (int group = 0; group < 1 + random.nextInt(30); group++) {
+                for (int modifier = 0; modifier < 1 + random.nextInt(4); modifier++) {
+                    template.append(vocabulary.get(random.nextInt(vocabulary.size())))
+                            .append(random.nextInt(4) == 0 ? "() " : " ");
+                }
+                template.append(",");
+            }
+            Order order = new AbstractModifiersCheck().parseTemplate(template.toString());
+
+            for (int member = 0; member < 50; member++) {
+                List<Modifier> modifiers = IntStream.range(0, random.nextInt(12))
+                        .mapToObj(i -> new Modifier(
+                                vocabulary.get(random.nextInt(vocabulary.size())), random.nextBoolean(), -1, -1))
+                        .toList();
+
+                GroupOrder expected = order.groups().stream()
+                        .filter(group -> group.matches(modifiers))
+                        .max(Comparator.comparing(group -> group.modifiers().size()))
+                        .orElse(null);
+                assertThat(order.getOrder(modifiers)).isEqualTo(expected);
+                assertThat(order.matches(modifiers)).isEqualTo(expected != null);
+            }
+        }
+    }
+
+    @Test
+    public void extractsModifiersOncePerFile() throws Exception {
+        var annotationOrderCheck = new AnnotationOrderCheck();
+        annotationOrderCheck.setTypeTemplate("public");
+        annotationOrderCheck.setFieldTemplate("private");
+        annotationOrderCheck.setMethodTemplate("public");
+        var declarationOrderCheck = new DeclarationOrderCheck();
+        declarationOrderCheck.setTemplate("field, method");
+        var boundaryCheck = new BoundaryCheck();
+        boundaryCheck.setMinNewLines(1);
+
+        ModifierCache cache = ModifierCache.get(false);
+        ModifierCache.Stats before = cache.getStats();
+        process(
+                List.of(annotationOrderCheck, declarationOrderCheck, boundaryCheck),
+                // language=Java
+                """
+                public class TestClass {
+                    private int field1;
+                    private int field2;
+                    public void method(int param) {}
+                }
+                """
+        );
+        ModifierCache.Stats after = cache.getStats();
+
+        assertThat(after.misses() - before.misses()).isEqualTo(7);
+        assertThat(after.hits() - before.hits()).isEqualTo(10);
+    }
+
+    @Test
+    public void getTokensSkipsTokensThatCannotMatch() {
+        var check = new AbstractModifiersCheck();
+
+        assertThat(check.getTokens(check.parseTemplate("public method getter, private field, class")))
+                .containsExactly(CLASS_DEF, VARIABLE_DEF, METHOD_DEF);
+        assertThat(check.getTokens(check.parseTemplate("type"))).containsExactly(
+                VARIABLE_DEF, ANNOTATION_FIELD_DEF, PARAMETER_DEF, RECORD_COMPONENT_DEF, METHOD_DEF);
+        assertThat(check.getTokens(check.parseTemplate("field method"))).isEmpty();
+        assertThat(check.getTokens(check.parseTemplate("@Lazy, method"))).isEqualTo(check.getAcceptableTokens());
+        assertThat(check.getTokens(check.parseTemplate(""))).isEqualTo(check.getAcceptableTokens());
+    }
+
+    @Test
+    public void parseTemplateSharesCompiledTemplates() {
+        var check = new AbstractModifiersCheck();
+        Order order = check.parseTemplate("""
+            @Bean @Lazy()  public
+            private, field
+        """);
+
+        TemplateCache.Stats before = TemplateCache.stats();
+        assertThat(new AbstractModifiersCheck().parseTemplate("@Bean @Lazy() public,private,  field"))
+                .isSameAs(order);
+        assertThat(check.parseTemplate("@Bean @Lazy() public private field")).isNotSameAs(order);
+        TemplateCache.Stats after = TemplateCache.stats();
+
+        assertThat(after.hits() - before.hits()).isEqualTo(1);
+        assertThat(after.misses() - before.misses()).isEqualTo(1);
+        assertThat(TemplateCache.normalize(" a  b\n\t c,,d ( ) ,")).isEqualTo("a b,c,d ( )");
+    }
+
+    @Test
+    public void stopsCheckingFileOverBudget() throws Exception {
+        var check = new DeclarationOrderCheck();
+        check.setTemplate("field, method, class");
+        check.setBudgetTokens(4);
+        List<ModifierViolation> listened = new ArrayList<>();
+        check.setViolationListener(listened::add);
+
+        FileBudget.Stats before = FileBudget.stats();
+        List<String> violations = process(
+                List.of(check),
+                // language=Java
+                """
+                public class TestClass {
+                    public void method() {}
+                    class Nested {}
+                    private int field;
+                }
+                """
+        );
+        FileBudget.Stats after = FileBudget.stats();
+
+        assertThat(violations).containsExactly(
+                "4:5 Test.java exceeds the budget of 4 tokens, the rest of the file is not checked");
+        assertThat(listened).extracting(ModifierViolation::kind).containsExactly(ModifierViolation.Kind.BUDGET);
+        assertThat(check.getViolations()).singleElement()
+                .satisfies(violation -> assertThat(violation.getSeverityLevel()).isEqualTo(SeverityLevel.INFO));
+        assertThat(after.files() - before.files()).isEqualTo(1);
+        assertThat(after.exceeded() - before.exceeded()).isEqualTo(1);
+    }
+
+    @Test
+    public void readsClockOncePerInterval() throws Exception {
+        var budget = new FileBudget();
+        budget.setMillis(1);
+        budget.start();
+        Thread.sleep(5);
+
+        for (int i = 1; i < FileBudget.CLOCK_INTERVAL; i++) assertThat(budget.visit()).isTrue();
+        assertThat(budget.visit()).isFalse();
+        assertThat(budget.visit()).isFalse();
+        assertThat(budget.visited()).isEqualTo(FileBudget.CLOCK_INTERVAL);
+        assertThat(budget).hasToString("1 ms");
+    }
+
+    private static List<Modifier> modifiers(String... texts) {
+        return Arrays.stream(texts).map(text -> new Modifier(text, false, -1, -1)).toList();
+    }
+}
@@ -1,16 +1,30 @@
 package io.github.dmitrybdev.checkstyle;
 
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.Modifier;
+import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.ModifierViolation;
+import io.github.dmitrybdev.checkstyle.AbstractModifiersCheck.ModifierViolation.Kind;
+import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import static com.puppycrawl.tools.checkstyle.api.TokenTypes.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
 class AnnotationOrderCheckTest extends CheckstyleTest {
 
     @Override
     protected Collection<AbstractCheck> getChecks() {
+        return List.of(createCheck(false));
+    }
+
+    private static AnnotationOrderCheck createCheck(boolean prefilter) {
         var annotationOrderCheck = new AnnotationOrderCheck();
+        annotationOrderCheck.setPrefilter(prefilter);
         annotationOrderCheck.setTypeTemplate("""
             @spring.Component @Lazy @Order, @Getter @Setter
             public private final static
@@ -24,7 +38,8 @@ class AnnotationOrderCheckTest extends CheckstyleTest {
             @Bean @Lazy @Order
             public private final static @Nullable type
         """);
-        return List.of(annotationOrderCheck);
+        annotationOrderCheck.setTabWidth(4);
+        return annotationOrderCheck;
     }
 
     @Override
@@ -83,5 +98,123 @@ class AnnotationOrderCheckTest extends CheckstyleTest {
                 """,
                 List.of()
         );
+        testCases.put(
+                "public class TestClass {\n\t@Order @Bean\n\tint bean() {}\n}",
+                List.of("2:12 @Bean must be placed before @Order")
+        );
+    }
+
+    @Test
+    public void subscribesToConfiguredTemplatesOnly() {
+        var annotationOrderCheck = new AnnotationOrderCheck();
+        assertThat(annotationOrderCheck.getDefaultTokens()).isEmpty();
+
+        annotationOrderCheck.setMethodTemplate("@Bean public");
+        assertThat(annotationOrderCheck.getDefaultTokens()).containsExactly(CTOR_DEF, METHOD_DEF);
+    }
+
+    @Test
+    public void prefilterSkipsFilesWithoutTemplateWordsOnly() throws Exception {
+        Map<String, Collection<String>> testCases = new LinkedHashMap<>();
+        createTestCases(testCases);
+        List<String> sources = new ArrayList<>(testCases.keySet());
+        sources.add("class Dto {\n    @JsonProperty String name;\n    String getName() { return name; }\n}");
+        sources.add("@Data\npublic class Dto {\n    @Getter\n    String name;\n}");
+        for (int seed = 0; seed < 10; seed++) {
+            sources.add(new CorpusGenerator().members(50).annotationsPerMember(seed % 3).templateSize(3).seed(seed).source());
+        }
+
+        TemplateFilter.Stats before = TemplateFilter.stats();
+        for (String source : sources) {
+            assertThat(process(List.of(createCheck(true)), source))
+                    .containsExactlyElementsOf(process(List.of(createCheck(false)), source));
+        }
+        TemplateFilter.Stats after = TemplateFilter.stats();
+
+        assertThat(after.files() - before.files()).isEqualTo(sources.size());
+        assertThat(after.skipped() - before.skipped()).isEqualTo(1);
+    }
+
+    @Test
+    public void prefersExactEntriesAndLongerPrefixesOfWildcards() throws Exception {
+        String source = """
+                class Entity {
+                    @javax.persistence.Column @Id private Long id;
+                    @JsonProperty @JsonIgnore private String secret;
+                    @JsonView @JsonProperty @JsonAlias private String name;
+                    @Schema @SchemaProperty(name = "x") @Nullable private String description;
+                }
+                """;
+        List<String> expected = List.of(
+                "2:31 @Id must be placed before @javax.persistence.Column",
+                "3:19 @JsonIgnore must be placed before @JsonProperty",
+                "4:15 @JsonProperty must be placed before @JsonView",
+                "5:13 @SchemaProperty() must be placed before @Schema"
+        );
+
+        for (boolean prefilter : new boolean[] { false, true }) {
+            var annotationOrderCheck = new AnnotationOrderCheck();
+            annotationOrderCheck.setPrefilter(prefilter);
+            annotationOrderCheck.setFieldTemplate(
+                    "@Id @javax.persistence.* @JsonIgnore @Json* @JsonView* @Schema*() @Schema* private final");
+            assertThat(process(List.of(annotationOrderCheck), source)).containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    public void resolvesAnnotationNamesThroughImports() throws Exception {
+        var resolving = new AnnotationOrderCheck();
+        resolving.setResolveImports(true);
+        resolving.setMethodTemplate(
+                "@org.springframework.context.annotation.Bean @org.springframework.context.annotation.Lazy "
+                        + "@com.example.Api.Path @Override");
+        var asWritten = new AnnotationOrderCheck();
+        asWritten.setMethodTemplate("@Bean @Lazy");
+
+        assertThat(process(List.of(resolving, asWritten), """
+                import org.springframework.context.annotation.Bean;
+                import org.springframework.context.annotation.Lazy;
+                import com.example.Api;
+                import javax.annotation.*;
+
+                class Config {
+                    @Lazy @org.springframework.context.annotation.Bean Object first() { return null; }
+                    @other.Lazy @Bean Object second() { return null; }
+                    @Override @Api.Path @Lazy public String toString() { return ""; }
+                    @Lazy @Bean Object third() { return null; }
+                }
+                """)).containsExactly(
+                "7:11 @org.springframework.context.annotation.Bean must be placed before "
+                        + "@org.springframework.context.annotation.Lazy",
+                "9:15 @com.example.Api.Path must be placed before @Override",
+                "9:25 @org.springframework.context.annotation.Lazy must be placed before @com.example.Api.Path",
+                "10:11 @org.springframework.context.annotation.Bean must be placed before "
+                        + "@org.springframework.context.annotation.Lazy",
+                "10:11 @Bean must be placed before @Lazy"
+        );
+    }
+
+    @Test
+    public void reportsStructuredViolationsToListener() throws Exception {
+        List<ModifierViolation> violations = new ArrayList<>();
+        AnnotationOrderCheck check = createCheck(false);
+        check.setViolationListener(violations::add);
+
+        List<String> messages = process(List.of(check), """
+                @Lazy
+                @spring.Component() @Getter
+                public class TestClass {}
+                """);
+
+        assertThat(violations).containsExactly(
+                new ModifierViolation(Kind.ORDER, 2, 0,
+                        new Modifier("@spring.Component", true, 2, 0), new Modifier("@Lazy", false, 1, 0)),
+                new ModifierViolation(Kind.SAME_LINE, 2, 0,
+                        new Modifier("@spring.Component", true, 2, 0), new Modifier("@Lazy", false, 1, 0)),
+                new ModifierViolation(Kind.NEW_LINE, 2, 20,
+                        new Modifier("@Getter", false, 2, 20), new Modifier("@spring.Component", true, 2, 0))
+        );
+        assertThat(violations.stream().map(v -> "%d:%d %s".formatted(v.lineNo(), v.colNo() + 1, v.getMessage())))
+                .containsExactlyElementsOf(messages);
     }
-}
\ No newline at end of file
+}
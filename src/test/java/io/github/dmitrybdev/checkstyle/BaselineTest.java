@@ -0,0 +1,116 @@
+package io.github.dmitrybdev.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.github.dmitrybdev.checkstyle.CheckstyleTest.process;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BaselineTest {
+
+    private static final String SOURCE = """
+            public class TestClass {
+                public @Nullable @Deprecated String field;
+
+                public void method(@Nullable @Deprecated String param) {}
+
+                private int value;
+            }
+            """;
+
+    private static final String CHANGED_SOURCE = """
+            import java.util.List;
+
+            public class TestClass {
+
+                public @Nullable @Deprecated String field;
+
+                public void method(@Nullable @Deprecated String param) {}
+
+                public void method(@Nullable @Deprecated List<String> param) {}
+
+                private int value;
+            }
+            """;
+
+    @Test
+    public void dropsRecordedViolationsWhereverTheyMove(@TempDir Path directory) throws Exception {
+        String baseline = directory.resolve("baseline.bin").toString();
+
+        Baseline.startRecording();
+        assertThat(process(createChecks(baseline), SOURCE)).containsExactly(
+                "2:22 @Deprecated must be placed before @Nullable",
+                "4:34 @Deprecated must be placed before @Nullable",
+                "6:5 private field must be placed before public method"
+        );
+        Baseline.saveRecorded();
+
+        assertThat(Files.size(Path.of(baseline))).isEqualTo(8 + 3 * 8);
+        assertThat(process(createChecks(baseline), CHANGED_SOURCE)).containsExactly(
+                "9:34 @Deprecated must be placed before @Nullable"
+        );
+        assertThat(process(createChecks(directory.resolve("other.bin").toString()), CHANGED_SOURCE)).hasSize(4);
+    }
+
+    @Test
+    public void reloadsBaselineUpdatedByAnotherRun(@TempDir Path directory) throws Exception {
+        String baseline = directory.resolve("baseline.bin").toString();
+        List<AbstractCheck> checks = createChecks(baseline);
+        String description = Baseline.load(Path.of(baseline)).describe();
+        assertThat(process(checks, SOURCE)).hasSize(3);
+
+        Baseline.startRecording();
+        process(createChecks(baseline), SOURCE);
+        Baseline.saveRecorded();
+
+        assertThat(process(checks, SOURCE)).isEmpty();
+        assertThat(Baseline.load(Path.of(baseline)).describe()).isNotEqualTo(description);
+    }
+
+    @Test
+    public void fingerprintsDeclarationsBySignature() throws Exception {
+        List<String> signatures = new ArrayList<>();
+        var check = new AbstractModifiersCheck() {
+            @Override
+            public void visitToken(DetailAST ast) {
+                signatures.add(getSignature(ast));
+            }
+        };
+        process(List.of(check), """
+                class Outer {
+                    static class Inner<T> {
+                        Inner(java.util.Map<String, T> map, int[]... values) {}
+                    }
+                    void method(@Nullable List<String> list, final char value) {}
+                }
+                """);
+
+        assertThat(signatures).containsExactly(
+                "Outer",
+                "Outer.Inner",
+                "Outer.Inner.Inner(java.util.Map, int[]...)",
+                "Outer.Inner.Inner(java.util.Map, int[]...).map",
+                "Outer.Inner.Inner(java.util.Map, int[]...).values",
+                "Outer.method(List, char)",
+                "Outer.method(List, char).list",
+                "Outer.method(List, char).value"
+        );
+    }
+
+    private static List<AbstractCheck> createChecks(String baseline) {
+        var annotationOrderCheck = new AnnotationOrderCheck();
+        annotationOrderCheck.setFieldTemplate("@Deprecated @Nullable");
+        annotationOrderCheck.setBaseline(baseline);
+        var declarationOrderCheck = new DeclarationOrderCheck();
+        declarationOrderCheck.setTemplate("private field, public method");
+        declarationOrderCheck.setBaseline(baseline);
+        return List.of(annotationOrderCheck, declarationOrderCheck);
+    }
+}
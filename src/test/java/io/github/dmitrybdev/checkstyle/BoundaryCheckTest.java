@@ -1,11 +1,15 @@
 package io.github.dmitrybdev.checkstyle;
 
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import org.junit.jupiter.api.Test;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
+import static com.puppycrawl.tools.checkstyle.api.TokenTypes.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
 class BoundaryCheckTest extends CheckstyleTest {
 
     @Override
@@ -106,6 +110,75 @@ class BoundaryCheckTest extends CheckstyleTest {
                 )
         );
 
+        testCases.put(
+                // language=Java
+                """
+                public class TestClass {
+                
+                    private int field1 = 2
+                            * 3;
+                    private int field2 = 2
+                            * 3;
+                
+                    private int field3 = 2
+                            * 3;
+                    /*
+                     * Comment
+                     */
+                    private int field4;
+                }
+                """,
+                List.of(
+                        "5:5 Current interval (0 lines) is less than required: 1"
+                )
+        );
+
+        testCases.put(
+                // language=Java
+                """
+                public class TestClass {
+                
+                    private String field1 = "/*"
+                            + "*/";
+                    private String field2 = '"' + "/*"
+                            + "*/";
+                
+                    private String field3 = ""\"
+                            /*
+                            ""\";
+                    private int field4 = 2
+                            * 3;
+                }
+                """,
+                List.of(
+                        "5:5 Current interval (0 lines) is less than required: 1",
+                        "11:5 Current interval (0 lines) is less than required: 1"
+                )
+        );
+
+        testCases.put(
+                // language=Java
+                """
+                public class TestClass {
+                
+                    private String field1 = "\\u002F*"
+                            + "\\u002F\\u002F";
+                    private String field2 = ""\"
+                            // not a comment
+                            ""\"; // /* not a block comment
+                    private int field3 = 2
+                            * 3;
+                    /* a comment */ private int field4 = 2
+                            * 3;
+                }
+                """,
+                List.of(
+                        "5:5 Current interval (0 lines) is less than required: 1",
+                        "8:5 Current interval (0 lines) is less than required: 1",
+                        "10:21 Current interval (0 lines) is less than required: 1"
+                )
+        );
+
         testCases.put(
                 // language=Java
                 """
@@ -134,4 +207,17 @@ class BoundaryCheckTest extends CheckstyleTest {
                 List.of()
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    public void subscribesToClassMembersMatchingBefore() {
+        var boundaryCheck = new BoundaryCheck();
+        boundaryCheck.setBefore("public method");
+        assertThat(boundaryCheck.getDefaultTokens()).isEmpty();
+
+        boundaryCheck.setMinNewLines(1);
+        assertThat(boundaryCheck.getDefaultTokens()).containsExactly(METHOD_DEF);
+
+        boundaryCheck.setBefore("type");
+        assertThat(boundaryCheck.getDefaultTokens()).containsExactly(VARIABLE_DEF, ANNOTATION_FIELD_DEF, METHOD_DEF);
+    }
+}
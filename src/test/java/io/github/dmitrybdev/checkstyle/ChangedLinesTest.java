@@ -0,0 +1,136 @@
+package io.github.dmitrybdev.checkstyle;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static io.github.dmitrybdev.checkstyle.CheckstyleTest.process;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChangedLinesTest {
+
+    @Test
+    public void parsesAddedAndRemovedLinesOfUnifiedDiff() {
+        Path root = Path.of("/repository");
+        ChangedLines changedLines = ChangedLines.parseDiff("""
+                diff --git a/src/Changed.java b/src/Changed.java
+                --- a/src/Changed.java
+                +++ b/src/Changed.java
+                @@ -2,3 +2,4 @@ class Changed {
+                     int unchanged;
+                -    int removed;
+                +    int added;
+                +    int addedToo;
+                     int unchangedToo;
+                @@ -20,2 +19,0 @@
+                -    int removedAfterLine19;
+                -    int removedToo;
+                \\ No newline at end of file
+                --- a/src/Deleted.java
+                +++ /dev/null
+                @@ -1 +0,0 @@
+                -class Deleted {}
+                """, root);
+
+        assertThat(lines(changedLines.get("/repository/src/Changed.java"))).containsExactly(3, 4, 19, 20);
+        assertThat(lines(changedLines.get("/repository/src/Deleted.java"))).isEmpty();
+        assertThat(lines(changedLines.get("/repository/src/Other.java"))).isEmpty();
+    }
+
+    @Test
+    public void intersectsLineRangesInclusively() {
+        BitSet changed = new BitSet();
+        changed.set(10);
+
+        assertThat(ChangedLines.intersects(changed, 1, 9)).isFalse();
+        assertThat(ChangedLines.intersects(changed, 1, 10)).isTrue();
+        assertThat(ChangedLines.intersects(changed, 10, 10)).isTrue();
+        assertThat(ChangedLines.intersects(changed, 11, 20)).isFalse();
+        assertThat(ChangedLines.intersects(null, 11, 20)).isTrue();
+    }
+
+    @Test
+    public void readsChangesOfGitWorkingTree(@TempDir Path directory) throws Exception {
+        Path tracked = Files.writeString(directory.resolve("Tracked.java"), "class Tracked {\n    int a;\n}\n");
+        git(directory, "init", "-q");
+        git(directory, "add", "Tracked.java");
+        git(directory, "-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "init");
+        Files.writeString(tracked, "class Tracked {\n    int a;\n    int b;\n}\n");
+        Path untracked = Files.writeString(directory.resolve("Untracked.java"), "class Untracked {}\n");
+
+        ChangedLines changedLines = ChangedLines.fromGit(directory);
+
+        assertThat(lines(changedLines.get(tracked.toRealPath().toString()))).containsExactly(3);
+        assertThat(changedLines.get(untracked.toRealPath().toString())).isNull();
+    }
+
+
+    @Test
+    public void loadsChangesAgainOnceTheyMayHaveChanged(@TempDir Path directory) throws Exception {
+        Path diff = Files.writeString(directory.resolve("changes.diff"), "+++ b/Test.java\n@@ -1,0 +2 @@\n+a\n");
+        ChangedLines first = ChangedLines.load(diff.toString());
+        assertThat(ChangedLines.load(diff.toString())).isSameAs(first);
+
+        Files.writeString(diff, "+++ b/Test.java\n@@ -1,0 +3 @@\n+a\n");
+        Files.setLastModifiedTime(diff, FileTime.fromMillis(Files.getLastModifiedTime(diff).toMillis() + 1000));
+        assertThat(lines(ChangedLines.load(diff.toString()).get("Test.java"))).containsExactly(3);
+
+        Path tracked = Files.writeString(directory.resolve("Tracked.java"), "class Tracked {\n}\n");
+        git(directory, "init", "-q");
+        git(directory, "add", "Tracked.java");
+        git(directory, "-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "init");
+        String file = tracked.toRealPath().toString();
+        assertThat(lines(ChangedLines.load(directory.toString()).get(file))).isEmpty();
+
+        Files.writeString(tracked, "class Tracked {\n    int a;\n}\n");
+        assertThat(lines(ChangedLines.load(directory.toString()).get(file))).isEmpty();
+        ChangedLines.refresh(directory.toString());
+        assertThat(lines(ChangedLines.load(directory.toString()).get(file))).containsExactly(2);
+    }
+
+    @Test
+    public void reportsDeclarationsInsertedBeforeUnchangedOnes(@TempDir Path directory) throws Exception {
+        String diff = Files.writeString(directory.resolve("changes.diff"), """
+                --- a/Test.java
+                +++ b/Test.java
+                @@ -1,0 +2 @@ class TestClass {
+                +    void inserted() {}
+                """).toString();
+        String source = """
+                class TestClass {
+                    void inserted() {}
+                    private int field;
+                    private int otherField;
+                }
+                """;
+
+        var declarationOrderCheck = new DeclarationOrderCheck();
+        declarationOrderCheck.setTemplate("field, method");
+        declarationOrderCheck.setChangedLines(diff);
+        var suite = new ModifiersSuiteCheck();
+        suite.setTemplate("field, method");
+        suite.setChangedLines(diff);
+
+        assertThat(process(List.of(declarationOrderCheck), source))
+                .containsExactly("3:5 field must be placed before method");
+        assertThat(process(List.of(suite), source))
+                .containsExactly("3:5 field must be placed before method");
+    }
+
+
+    private static List<Integer> lines(BitSet lines) {
+        return lines.stream().boxed().toList();
+    }
+
+    static void git(Path directory, String... args) throws Exception {
+        List<String> command = new ArrayList<>(List.of("git", "-C", directory.toString()));
+        command.addAll(List.of(args));
+        assertThat(new ProcessBuilder(command).inheritIO().start().waitFor()).isZero();
+    }
+}
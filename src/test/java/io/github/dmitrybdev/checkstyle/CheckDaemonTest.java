@@ -0,0 +1,94 @@
+package io.github.dmitrybdev.checkstyle;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CheckDaemonTest {
+
+    @TempDir
+    Path directory;
+
+
+    @Test
+    public void checksFilesAndUnsavedBuffers() throws Exception {
+        Path file = Files.writeString(directory.resolve("Saved.java"), """
+                @Component @Lazy
+                public class Saved {}
+                """);
+        var daemon = new CheckDaemon(writeConfiguration("@Lazy @Component"), 2);
+
+        List<String> replies = serve(daemon, """
+                file %s
+                buffer 4 Unsaved.java
+                @Component
+                public class Unsaved {
+                    public void method() {}
+                }
+                check
+                check
+                unknown
+                quit
+                check
+                """.formatted(file));
+
+        assertThat(replies).containsExactly(
+                "violation\t%s\t1\t12\terror\tAnnotationOrder\t@Lazy must be placed before @Component".formatted(file),
+                "done\t2\t1",
+                "done\t0\t0",
+                "error\tUnknown request: unknown"
+        );
+    }
+
+    @Test
+    public void reloadsChangedConfiguration() throws Exception {
+        Path configuration = writeConfiguration("@Lazy @Component");
+        var daemon = new CheckDaemon(configuration, 1);
+        String request = """
+                buffer 1 Test.java
+                @Component @Lazy class Test {}
+                check
+                """;
+
+        ParallelRunner runner = daemon.getRunner();
+        assertThat(serve(daemon, request)).hasSize(2);
+        assertThat(daemon.getRunner()).isSameAs(runner);
+
+        writeConfiguration("@Component @Lazy");
+        assertThat(serve(daemon, request)).containsExactly("done\t1\t0");
+        assertThat(daemon.getRunner()).isNotSameAs(runner);
+    }
+
+    @Test
+    public void answersMalformedRequestsWithError() throws Exception {
+        var daemon = new CheckDaemon(writeConfiguration("@Lazy @Component"), 1);
+
+        assertThat(serve(daemon, "buffer lines Test.java\nfile\ncheck\n")).containsExactly(
+                "error\tMalformed request: buffer lines Test.java",
+                "error\tMalformed request: file",
+                "done\t0\t0"
+        );
+    }
+
+
+    private static List<String> serve(CheckDaemon daemon, String requests) throws Exception {
+        var output = new StringWriter();
+        daemon.serve(new StringReader(requests), output);
+        return output.toString().lines().toList();
+    }
+
+    private Path writeConfiguration(String typeTemplate) throws Exception {
+        return CheckstyleTest.writeConfiguration(directory, """
+                <module name="io.github.dmitrybdev.checkstyle.AnnotationOrderCheck">
+                    <property name="typeTemplate" value="%s"/>
+                </module>
+                """.formatted(typeTemplate));
+    }
+}
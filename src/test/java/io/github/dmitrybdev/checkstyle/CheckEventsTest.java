@@ -0,0 +1,62 @@
+package io.github.dmitrybdev.checkstyle;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static io.github.dmitrybdev.checkstyle.CheckstyleTest.process;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Runs in its own surefire execution, whose JVM keeps the logging of the Flight Recorder off the fork channel. */
+class CheckEventsTest {
+
+    @Test
+    public void recordsFlightRecorderEvents(@TempDir Path dir) throws Exception {
+        Path dump = dir.resolve("checks.jfr");
+        try (var recording = new Recording()) {
+            recording.enable(CheckEvents.FileCheck.class).withThreshold(Duration.ZERO);
+            recording.enable(CheckEvents.TemplateCompilation.class);
+            recording.start();
+
+            var check = new DeclarationOrderCheck();
+            check.setTemplate("field, method, class, record");
+            check.setTemplate("field,  method, class, record");
+            process(
+                    List.of(check),
+                    // language=Java
+                    """
+                    public class TestClass {
+                        public void method() {}
+                        private int field;
+                        class Nested {}
+                    }
+                    """
+            );
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        assertThat(events)
+                .filteredOn(event -> event.getEventType().getName().endsWith(".TemplateCompilation"))
+                .filteredOn(event -> event.getString("template").startsWith("field"))
+                .extracting(event -> event.getBoolean("cached"))
+                .containsExactly(false, true);
+        assertThat(events)
+                .filteredOn(event -> event.getEventType().getName().endsWith(".FileCheck"))
+                .singleElement()
+                .satisfies(event -> {
+                    assertThat(event.getClass("check").getName()).isEqualTo(DeclarationOrderCheck.class.getName());
+                    assertThat(event.getString("file")).endsWith("Test.java");
+                    assertThat(event.getInt("tokens")).isEqualTo(8);
+                    assertThat(event.getInt("modifiers")).isEqualTo(9);
+                    assertThat(event.getInt("violations")).isEqualTo(1);
+                });
+    }
+}
@@ -5,6 +5,8 @@ import com.puppycrawl.tools.checkstyle.PackageNamesLoader;
 import com.puppycrawl.tools.checkstyle.PackageObjectFactory;
 import com.puppycrawl.tools.checkstyle.TreeWalker;
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import org.apache.commons.lang3.reflect.MethodUtils;
 import org.junit.jupiter.api.TestInstance;
@@ -13,9 +15,15 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -30,13 +38,16 @@ public abstract class CheckstyleTest {
     @ParameterizedTest
     @MethodSource("getTestCases")
     public final void check(String source, Collection<String> expectedViolations) throws Exception {
+        assertThat(process(getChecks(), source)).containsExactlyElementsOf(expectedViolations);
+    }
+
+    protected static List<String> process(Collection<AbstractCheck> checks, String source) throws Exception {
         TreeWalker treeWalker = new TreeWalker();
         treeWalker.setModuleFactory(new PackageObjectFactory(
-                PackageNamesLoader.getPackageNames(this.getClass().getClassLoader()),
-                this.getClass().getClassLoader()
+                PackageNamesLoader.getPackageNames(CheckstyleTest.class.getClassLoader()),
+                CheckstyleTest.class.getClassLoader()
         ));
 
-        Collection<AbstractCheck> checks = getChecks();
         for (AbstractCheck check : checks) {
             check.init();
             check.configure(new DefaultConfiguration("Test"));
@@ -46,11 +57,56 @@ public abstract class CheckstyleTest {
         var file = new File("Test.java");
         treeWalker.process(file, new FileText(file, source.lines().toList()));
 
-        Collection<String> actualViolations = checks.stream().flatMap(c -> c.getViolations().stream())
+        return checks.stream().flatMap(c -> c.getViolations().stream())
                 .map(v -> "%d:%d %s".formatted(v.getLineNo(), v.getColumnNo(), v.getViolation()))
                 .toList();
+    }
+
+    /**
+     * Writes {@code checkstyle.xml} to the directory: a Checker with the modules, like filters and properties, and a
+     * TreeWalker with the checks, both given as XML.
+     */
+    protected static Path writeConfiguration(Path directory, String checkerModules, String checks) throws IOException {
+        return Files.writeString(directory.resolve("checkstyle.xml"), """
+                <?xml version="1.0"?>
+                <!DOCTYPE module PUBLIC
+                        "-//Checkstyle//DTD Checkstyle Configuration 1.3//EN"
+                        "https://checkstyle.org/dtds/configuration_1_3.dtd">
+                <module name="Checker">
+                %s
+                    <module name="TreeWalker">
+                %s
+                    </module>
+                </module>
+                """.formatted(checkerModules, checks));
+    }
 
-        assertThat(actualViolations).containsExactlyElementsOf(expectedViolations);
+    protected static Path writeConfiguration(Path directory, String checks) throws IOException {
+        return writeConfiguration(directory, "", checks);
+    }
+
+    /**
+     * What {@link TreeWalker} does for the check over a file that is parsed once, so that measurements of the check
+     * leave out the parser. The check is expected to be configured and to need no comment nodes.
+     */
+    protected static void walk(AbstractCheck check, FileContents contents, DetailAST root) {
+        BitSet tokens = new BitSet();
+        IntStream.of(check.getDefaultTokens()).forEach(tokens::set);
+
+        check.clearViolations();
+        check.setFileContents(contents);
+        check.beginTree(root);
+        for (DetailAST ast = root; ast != null; ) {
+            if (tokens.get(ast.getType())) check.visitToken(ast);
+
+            DetailAST next = ast.getFirstChild();
+            while (next == null && ast != null) {
+                next = ast.getNextSibling();
+                ast = ast.getParent();
+            }
+            ast = next;
+        }
+        check.finishTree(root);
     }
 
     private Stream<Arguments> getTestCases() {
@@ -0,0 +1,100 @@
+package io.github.dmitrybdev.checkstyle;
+
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generates a Java file with a configurable number of members, annotations per member, comment lines before
+ * each member and template size, together with templates that reference its annotations. Members are split
+ * into nested classes of {@code membersPerClass}, as the Checkstyle parser itself appends the children of a
+ * node in time linear to their number.
+ */
+final class CorpusGenerator {
+
+    private int members = 100;
+    private int membersPerClass = Integer.MAX_VALUE;
+    private int annotationsPerMember = 2;
+    private int commentLines = 0;
+    private int templateSize = 10;
+    private long seed = 42;
+
+
+    CorpusGenerator members(int members) { this.members = members; return this; }
+    CorpusGenerator membersPerClass(int membersPerClass) { this.membersPerClass = membersPerClass; return this; }
+    CorpusGenerator annotationsPerMember(int annotationsPerMember) { this.annotationsPerMember = annotationsPerMember; return this; }
+    CorpusGenerator commentLines(int commentLines) { this.commentLines = commentLines; return this; }
+    CorpusGenerator templateSize(int templateSize) { this.templateSize = templateSize; return this; }
+    CorpusGenerator seed(long seed) { this.seed = seed; return this; }
+
+
+    String source() {
+        var random = new Random(seed);
+        var source = new StringBuilder("package generated;\n\n")
+                .append(annotations(random)).append('\n')
+                .append("public class Generated {\n");
+        boolean nested = members > membersPerClass;
+        for (int member = 0; member < members; member++) {
+            if (nested && member % membersPerClass == 0) {
+                if (member > 0) source.append("    }\n\n");
+                source.append("    public static class Nested%d {\n".formatted(member / membersPerClass));
+            }
+            if (commentLines > 0) appendComment(source);
+            if (member % 5 == 4) source.append('\n');
+            source.append("    ").append(annotations(random)).append('\n');
+            switch (member % 4) {
+                case 0 -> source.append("    private final @A1 String field%d;\n".formatted(member));
+                case 1 -> source.append("    public static int field%d = 1\n            * %d;\n".formatted(member, member));
+                case 2 -> source.append("    public String getField%1$d() {\n        return field%1$d;\n    }\n"
+                        .formatted(member - 2));
+                default -> source.append("    public void setField%d(@A0 int value) {}\n".formatted(member));
+            }
+        }
+        if (nested) source.append("    }\n");
+        return source.append("}\n").toString();
+    }
+
+    String typeTemplate() {
+        return annotationTemplate() + ", public private final static";
+    }
+
+    String fieldTemplate() {
+        return annotationTemplate() + ", public private final static type";
+    }
+
+    String methodTemplate() {
+        return annotationTemplate() + ", public private final static type";
+    }
+
+    String declarationTemplate() {
+        return IntStream.range(0, templateSize)
+                .mapToObj(i -> switch (i % 4) {
+                    case 0 -> "@A%d private field".formatted(i);
+                    case 1 -> "@A%d public static field".formatted(i);
+                    case 2 -> "@A%d public method getter".formatted(i);
+                    default -> "@A%d public method setter".formatted(i);
+                })
+                .collect(Collectors.joining(", ", "field, method, ", ""));
+    }
+
+    private String annotationTemplate() {
+        return IntStream.range(0, templateSize)
+                .mapToObj(i -> i % 3 == 0 ? "@A%d()".formatted(i) : "@A" + i)
+                .collect(Collectors.joining(" "));
+    }
+
+    private String annotations(Random random) {
+        return IntStream.range(0, annotationsPerMember)
+                .mapToObj(i -> {
+                    int annotation = random.nextInt(templateSize * 2);
+                    return random.nextBoolean() ? "@A" + annotation : "@A%d(%d)".formatted(annotation, i);
+                })
+                .collect(Collectors.joining(" "));
+    }
+
+    private void appendComment(StringBuilder source) {
+        source.append("    /**\n");
+        for (int line = 0; line < commentLines; line++) source.append("     * Comment line ").append(line).append('\n');
+        source.append("     */\n");
+    }
+}
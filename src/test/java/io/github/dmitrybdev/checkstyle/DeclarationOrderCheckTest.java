@@ -1,11 +1,14 @@
 package io.github.dmitrybdev.checkstyle;
 
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import org.junit.jupiter.api.Test;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 class DeclarationOrderCheckTest extends CheckstyleTest {
 
     @Override
@@ -59,4 +62,24 @@ class DeclarationOrderCheckTest extends CheckstyleTest {
                 List.of()
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    public void matchesGroupsByWildcards() throws Exception {
+        var declarationOrderCheck = new DeclarationOrderCheck();
+        declarationOrderCheck.setTemplate("@Id field, @javax.persistence.* field, field");
+
+        assertThat(process(List.of(declarationOrderCheck), """
+                class Entity {
+                    @javax.persistence.Column String name;
+                    String note;
+                    @javax.persistence.Id @Id Long id;
+                    @javax.persistence.Transient String cache;
+                    String comment;
+                    @javax.persistence.Version int version;
+                }
+                """)).containsExactly(
+                "4:5 @Id field must be placed before field",
+                "7:5 @javax.persistence.* field must be placed before field"
+        );
+    }
+}
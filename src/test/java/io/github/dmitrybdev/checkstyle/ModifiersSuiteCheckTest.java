@@ -0,0 +1,209 @@
+package io.github.dmitrybdev.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.ConfigurationLoader;
+import com.puppycrawl.tools.checkstyle.PropertiesExpander;
+import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ModifiersSuiteCheckTest extends CheckstyleTest {
+
+    private static final String TYPE_TEMPLATE = "@spring.Component @Lazy, public private final static";
+    private static final String FIELD_TEMPLATE = "@Lazy, @Getter public private final static @Nullable";
+    private static final String METHOD_TEMPLATE = "@Bean @Lazy, public private final static @Nullable type";
+    private static final String TEMPLATE = "field, public method, public method getter, public class, private class";
+    private static final String AFTER = "field";
+    private static final String BEFORE = "method";
+
+    // language=Java
+    private static final String SOURCE = """
+            @Lazy @spring.Component
+            public class TestClass {
+                @Getter @Lazy
+                private @Nullable final String field1;
+                public boolean isField() {}
+                public void method(@Nullable @Lazy String param) {
+                    for (final @Lazy int i : values) {}
+                    Runnable runnable = new Runnable() {
+                        public void run() {}
+                        @Lazy private int field;
+                    };
+                }
+                private String field2;
+            
+                @Lazy
+                public class Inner {
+                    private int value;
+                    void method() {}
+                }
+                private class Inner2 {}
+                public class Inner3 {}
+            }
+            """;
+
+
+    @Override
+    protected Collection<AbstractCheck> getChecks() {
+        var suite = new ModifiersSuiteCheck();
+        suite.setTypeTemplate(TYPE_TEMPLATE);
+        suite.setFieldTemplate(FIELD_TEMPLATE);
+        suite.setMethodTemplate(METHOD_TEMPLATE);
+        suite.setTemplate(TEMPLATE);
+        suite.setAfter(AFTER);
+        suite.setBefore(BEFORE);
+        suite.setMinNewLines(1);
+        return List.of(suite);
+    }
+
+    @Override
+    protected void createTestCases(Map<String, Collection<String>> testCases) {
+        testCases.put(
+                SOURCE,
+                List.of(
+                        "1:7 @spring.Component must be placed before @Lazy",
+                        "3:13 @Lazy must be placed before @Getter",
+                        "4:23 final must be placed before @Nullable",
+                        "5:5 Current interval (0 lines) is less than required: 1",
+                        "6:5 public method must be placed before public method getter",
+                        "6:34 @Lazy must be placed before @Nullable",
+                        "7:20 @Lazy must be placed before final",
+                        "10:19 private must be placed on the new line after @Lazy",
+                        "13:5 field must be placed before public method",
+                        "18:9 Current interval (0 lines) is less than required: 1",
+                        "21:5 public class must be placed before private class"
+                )
+        );
+    }
+
+    @Test
+    public void reportsSameViolationsAsSeparateChecks() throws Exception {
+        var annotationOrderCheck = new AnnotationOrderCheck();
+        annotationOrderCheck.setTypeTemplate(TYPE_TEMPLATE);
+        annotationOrderCheck.setFieldTemplate(FIELD_TEMPLATE);
+        annotationOrderCheck.setMethodTemplate(METHOD_TEMPLATE);
+        var declarationOrderCheck = new DeclarationOrderCheck();
+        declarationOrderCheck.setTemplate(TEMPLATE);
+        var boundaryCheck = new BoundaryCheck();
+        boundaryCheck.setAfter(AFTER);
+        boundaryCheck.setBefore(BEFORE);
+        boundaryCheck.setMinNewLines(1);
+
+        assertThat(process(List.of(annotationOrderCheck, declarationOrderCheck, boundaryCheck), SOURCE))
+                .containsExactlyInAnyOrderElementsOf(process(getChecks(), SOURCE));
+    }
+
+    @Test
+    public void checksOnlyDeclarationsIntersectingChangedLines(@TempDir Path directory) throws Exception {
+        String diff = Files.writeString(directory.resolve("changes.diff"), """
+                --- a/Test.java
+                +++ b/Test.java
+                @@ -12,0 +13 @@ public class TestClass {
+                +    private String field2;
+                @@ -18 +18 @@ public class TestClass {
+                -        private int value;
+                +        void method() {}
+                """).toString();
+        var annotationOrderCheck = new AnnotationOrderCheck();
+        annotationOrderCheck.setTypeTemplate(TYPE_TEMPLATE);
+        annotationOrderCheck.setFieldTemplate(FIELD_TEMPLATE);
+        annotationOrderCheck.setMethodTemplate(METHOD_TEMPLATE);
+        annotationOrderCheck.setChangedLines(diff);
+        var declarationOrderCheck = new DeclarationOrderCheck();
+        declarationOrderCheck.setTemplate(TEMPLATE);
+        declarationOrderCheck.setChangedLines(diff);
+        var boundaryCheck = new BoundaryCheck();
+        boundaryCheck.setAfter(AFTER);
+        boundaryCheck.setBefore(BEFORE);
+        boundaryCheck.setMinNewLines(1);
+        boundaryCheck.setChangedLines(diff);
+        var suite = (ModifiersSuiteCheck) getChecks().iterator().next();
+        suite.setChangedLines(diff);
+
+        List<String> expected = List.of(
+                "13:5 field must be placed before public method",
+                "18:9 Current interval (0 lines) is less than required: 1"
+        );
+        assertThat(process(List.of(suite), SOURCE)).containsExactlyElementsOf(expected);
+        assertThat(process(List.of(annotationOrderCheck, declarationOrderCheck, boundaryCheck), SOURCE))
+                .containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    public void reportsEveryRuleUnderTheCheckItReplaces(@TempDir Path directory) throws Exception {
+        Path source = Files.writeString(directory.resolve("Test.java"), SOURCE);
+        Path configuration = writeConfiguration(directory, """
+                <module name="SuppressionSingleFilter">
+                    <property name="checks" value="DeclarationOrder"/>
+                </module>
+                <module name="SuppressionSingleFilter">
+                    <property name="id" value="annotations"/>
+                    <property name="lines" value="3"/>
+                </module>
+                """, """
+                <module name="io.github.dmitrybdev.checkstyle.ModifiersSuiteCheck">
+                    <property name="typeTemplate" value="%s"/>
+                    <property name="fieldTemplate" value="%s"/>
+                    <property name="template" value="%s"/>
+                    <property name="after" value="%s"/>
+                    <property name="before" value="%s"/>
+                    <property name="minNewLines" value="1"/>
+                    <property name="annotationOrderId" value="annotations"/>
+                </module>
+                """.formatted(TYPE_TEMPLATE, FIELD_TEMPLATE, TEMPLATE, AFTER, BEFORE));
+        List<String> violations = new ArrayList<>();
+        Checker checker = new Checker();
+        checker.setModuleClassLoader(Checker.class.getClassLoader());
+        checker.configure(ConfigurationLoader.loadConfiguration(
+                configuration.toString(), new PropertiesExpander(new Properties())));
+        checker.addListener(new AuditListener() {
+            @Override
+            public void addError(AuditEvent event) {
+                violations.add("%d:%d %s %s %s".formatted(event.getLine(), event.getColumn(),
+                        event.getSourceName().substring(event.getSourceName().lastIndexOf('.') + 1),
+                        event.getModuleId(), event.getMessage()));
+            }
+
+            @Override public void auditStarted(AuditEvent event) {}
+            @Override public void auditFinished(AuditEvent event) {}
+            @Override public void fileStarted(AuditEvent event) {}
+            @Override public void fileFinished(AuditEvent event) {}
+            @Override public void addException(AuditEvent event, Throwable throwable) {}
+        });
+        checker.process(List.of(source.toFile()));
+        checker.destroy();
+
+        assertThat(violations).containsExactly(
+                "1:7 AnnotationOrderCheck annotations @spring.Component must be placed before @Lazy",
+                "4:23 AnnotationOrderCheck annotations final must be placed before @Nullable",
+                "5:5 BoundaryCheck null Current interval (0 lines) is less than required: 1",
+                "6:34 AnnotationOrderCheck annotations @Lazy must be placed before @Nullable",
+                "7:20 AnnotationOrderCheck annotations @Lazy must be placed before final",
+                "10:19 AnnotationOrderCheck annotations private must be placed on the new line after @Lazy",
+                "18:9 BoundaryCheck null Current interval (0 lines) is less than required: 1"
+        );
+    }
+
+    @Test
+    public void stopsWalkingBodiesOverBudget() throws Exception {
+        var suite = new ModifiersSuiteCheck();
+        suite.setTemplate(TEMPLATE);
+        suite.setMinNewLines(1);
+        suite.setBudgetTokens(2);
+
+        assertThat(process(List.of(suite), SOURCE)).containsExactly(
+                "3:5 Test.java exceeds the budget of 2 tokens, the rest of the file is not checked");
+    }
+}
@@ -0,0 +1,312 @@
+package io.github.dmitrybdev.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import io.github.dmitrybdev.checkstyle.ParallelRunner.FileResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParallelRunnerTest {
+
+    @TempDir
+    Path directory;
+
+
+    @Test
+    public void reportsSameViolationsInFileOrderOnAnyNumberOfThreads() throws Exception {
+        Path configuration = writeConfiguration();
+        List<Path> files = writeSources(50);
+
+        List<String> sequential = format(ParallelRunner.load(configuration, 1).check(files));
+        List<String> parallel = format(ParallelRunner.load(configuration, 4).check(files));
+
+        assertThat(sequential).hasSize(files.size() * 3);
+        assertThat(parallel).containsExactlyElementsOf(sequential);
+    }
+
+    @Test
+    public void printsViolationsLikeCheckstyle() throws Exception {
+        Path configuration = writeConfiguration();
+        List<Path> files = writeSources(2);
+        var out = new ByteArrayOutputStream();
+
+        int errors = ParallelRunner.run(
+                ParallelRunner.load(configuration, 2), ParallelRunner.findSources(List.of(directory)), new PrintStream(out)
+        );
+
+        assertThat(errors).isEqualTo(6);
+        assertThat(out.toString().lines()).containsExactly(
+                "Starting audit...",
+                "[ERROR] %s:2:1: @Lazy must be placed before @Component [AnnotationOrder]".formatted(files.get(0)),
+                "[ERROR] %s:2:1: @Lazy must be placed on the same line with @Component [AnnotationOrder]".formatted(files.get(0)),
+                "[ERROR] %s:6:5: method must be placed before field [DeclarationOrder]".formatted(files.get(0)),
+                "[ERROR] %s:2:1: @Lazy must be placed before @Component [AnnotationOrder]".formatted(files.get(1)),
+                "[ERROR] %s:2:1: @Lazy must be placed on the same line with @Component [AnnotationOrder]".formatted(files.get(1)),
+                "[ERROR] %s:6:5: method must be placed before field [DeclarationOrder]".formatted(files.get(1)),
+                "Audit done."
+        );
+    }
+
+
+    @Test
+    public void replaysCachedViolationsWithoutParsing() throws Exception {
+        Path configuration = writeConfiguration();
+        List<Path> files = writeSources(10);
+        Path cacheFile = directory.resolve("cache.bin");
+        List<String> expected = format(ParallelRunner.load(configuration, 2).check(files));
+
+        ParallelRunner runner = ParallelRunner.load(configuration, 2);
+        runner.setCacheFile(cacheFile);
+        assertThat(format(runner.check(files))).containsExactlyElementsOf(expected);
+
+        long misses = ModifierCache.stats().misses();
+        assertThat(format(runner.check(files))).containsExactlyElementsOf(expected);
+        assertThat(ModifierCache.stats().misses()).isEqualTo(misses);
+
+        Files.writeString(files.get(0), "class Changed {}");
+        assertThat(format(runner.check(files))).containsExactlyElementsOf(expected.subList(3, expected.size()));
+    }
+
+    @Test
+    public void keepsCachedViolationsOfFilesNotCheckedByTheRun() throws Exception {
+        Path configuration = writeConfiguration();
+        List<Path> files = List.of(
+                writeSources(1).get(0), Files.writeString(directory.resolve("Other.java"), "class Other {}"));
+        Path cacheFile = directory.resolve("cache.bin");
+
+        ParallelRunner runner = ParallelRunner.load(configuration, 2);
+        runner.setCacheFile(cacheFile);
+        runner.check(files.subList(0, 1));
+        runner.check(files.subList(1, 2));
+        assertThat(ResultCache.load(cacheFile).size()).isEqualTo(6);
+
+        ResultCache.load(cacheFile).save(LocalDate.now().toEpochDay() + ResultCache.MAX_AGE_DAYS + 1);
+        assertThat(ResultCache.load(cacheFile).size()).isZero();
+    }
+
+    @Test
+    public void invalidatesCachedViolationsWhenFilesOfFiltersChange() throws Exception {
+        List<Path> files = writeSources(1);
+        Path suppressions = directory.resolve("suppressions.xml");
+        String suppressionsFormat = """
+                <?xml version="1.0"?>
+                <!DOCTYPE suppressions PUBLIC
+                        "-//Checkstyle//DTD SuppressionXpathFilter Experimental Configuration 1.2//EN"
+                        "https://checkstyle.org/dtds/suppressions_1_2_xpath_experimental.dtd">
+                <suppressions>
+                    <suppress-xpath checks="%s" files="Test000"/>
+                </suppressions>
+                """;
+        Files.writeString(suppressions, suppressionsFormat.formatted("DeclarationOrder"));
+        Path configuration = CheckstyleTest.writeConfiguration(directory, """
+                <module name="io.github.dmitrybdev.checkstyle.DeclarationOrderCheck">
+                    <property name="template" value="method, field"/>
+                </module>
+                <module name="SuppressionXpathFilter">
+                    <property name="file" value="%s"/>
+                </module>
+                """.formatted(suppressions));
+        Path cacheFile = directory.resolve("cache.bin");
+
+        ParallelRunner runner = ParallelRunner.load(configuration, 1);
+        runner.setCacheFile(cacheFile);
+        assertThat(runner.check(files).get(0).violations()).isEmpty();
+
+        Files.writeString(suppressions, suppressionsFormat.formatted("AnnotationOrder"));
+        runner = ParallelRunner.load(configuration, 1);
+        runner.setCacheFile(cacheFile);
+        assertThat(format(runner.check(files))).containsExactly("Test000.java:6:5 method must be placed before field");
+    }
+
+    @Test
+    public void appliesPropertiesOfChecker() throws Exception {
+        Path configuration = writeConfiguration("@Lazy @Component", """
+                <property name="severity" value="warning"/>
+                <property name="fileExtensions" value="java, jav"/>
+                """);
+        List<Path> files = writeSources(1);
+        Files.copy(files.get(0), directory.resolve("src/Test.txt"));
+        var out = new ByteArrayOutputStream();
+
+        int errors = ParallelRunner.run(
+                ParallelRunner.load(configuration, 1), ParallelRunner.findSources(List.of(directory)), new PrintStream(out)
+        );
+        List<Path> filtered = List.of(directory.resolve("src/Test.txt"));
+
+        assertThat(errors).isZero();
+        assertThat(out.toString().lines()).hasSize(5).allMatch(line -> !line.startsWith("[ERROR]"));
+        assertThat(out.toString())
+                .contains("[WARN] %s:6:5: method must be placed before field".formatted(files.get(0)));
+        assertThat(ParallelRunner.load(configuration, 1).check(filtered)).isEmpty();
+    }
+
+    @Test
+    public void appliesFiltersOfChecker() throws Exception {
+        Path configuration = writeConfiguration("@Lazy @Component", """
+                <module name="SuppressionSingleFilter">
+                    <property name="checks" value="DeclarationOrder"/>
+                    <property name="files" value="Test000"/>
+                </module>
+                <module name="BeforeExecutionExclusionFileFilter">
+                    <property name="fileNamePattern" value="Test001\\.java$"/>
+                </module>
+                """);
+        List<Path> files = writeSources(3);
+
+        ParallelRunner runner = ParallelRunner.load(configuration, 2);
+        runner.setCacheFile(directory.resolve("cache.bin"));
+        List<String> violations = format(runner.check(files));
+
+        assertThat(violations).hasSize(5).noneMatch(violation -> violation.startsWith("Test001"))
+                .filteredOn(violation -> violation.startsWith("Test000")).hasSize(2)
+                .noneMatch(violation -> violation.contains("method must be placed before field"));
+        assertThat(format(runner.check(files))).containsExactlyElementsOf(violations);
+    }
+
+    @Test
+    public void keysCachedViolationsByPathWhenResultsDependOnIt() throws Exception {
+        List<Path> files = writeSources(2);
+        Path diff = Files.writeString(directory.resolve("changes.diff"), """
+                +++ %s
+                @@ -0,0 +1,7 @@
+                """.formatted(files.get(0).toAbsolutePath()) + "+\n".repeat(7));
+        Path configuration = writeChangedLinesConfiguration(diff);
+        List<String> expected = List.of("Test000.java:6:5 method must be placed before field");
+
+        ParallelRunner runner = ParallelRunner.load(configuration, 1);
+        runner.setCacheFile(directory.resolve("cache.bin"));
+        assertThat(format(runner.check(files))).containsExactlyElementsOf(expected);
+        assertThat(format(runner.check(files))).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    public void filtersByTheChangedLinesOfEveryRun() throws Exception {
+        Path file = Files.writeString(directory.resolve("Test.java"), """
+                public class Test {
+                    private String field;
+                    void method() {}
+                    private String other;
+                    void another() {}
+                }
+                """);
+        Path diff = Files.writeString(directory.resolve("changes.diff"), """
+                +++ %s
+                @@ -2,0 +3 @@
+                +    void method() {}
+                """.formatted(file.toAbsolutePath()));
+        ParallelRunner runner = ParallelRunner.load(writeChangedLinesConfiguration(diff), 1);
+        assertThat(format(runner.check(List.of(file))))
+                .containsExactly("Test.java:3:5 method must be placed before field");
+
+        Files.writeString(diff, """
+                +++ %s
+                @@ -4,0 +5 @@
+                +    void another() {}
+                """.formatted(file.toAbsolutePath()));
+        assertThat(format(runner.check(List.of(file))))
+                .containsExactly("Test.java:5:5 method must be placed before field");
+
+        Files.writeString(file, "public class Test {\n    private String field;\n    void method() {}\n}\n");
+        ChangedLinesTest.git(directory, "init", "-q");
+        ChangedLinesTest.git(directory, "add", "Test.java");
+        ChangedLinesTest.git(directory, "-c", "user.name=test", "-c", "user.email=test@example.com",
+                "commit", "-q", "-m", "init");
+        runner = ParallelRunner.load(writeChangedLinesConfiguration(directory), 1);
+        assertThat(runner.check(List.of(file)).get(0).violations()).isEmpty();
+
+        Files.writeString(file, "public class Test {\n    private String field;\n    void method() {}\n"
+                + "    private String other;\n    void another() {}\n}\n");
+        assertThat(format(runner.check(List.of(file))))
+                .containsExactly("Test.java:5:5 method must be placed before field");
+    }
+
+    @Test
+    public void fingerprintsEveryCheckByItsOwnConfiguration() throws Exception {
+        var runner = ParallelRunner.load(writeConfiguration("@Lazy @Component"), 1);
+        var reformatted = ParallelRunner.load(writeConfiguration("  @Lazy  @Component "), 1);
+        var changed = ParallelRunner.load(writeConfiguration("@Component @Lazy"), 1);
+        String annotationOrder = AnnotationOrderCheck.class.getName();
+
+        assertThat(reformatted.fingerprints).isEqualTo(runner.fingerprints);
+        assertThat(changed.fingerprints.get(annotationOrder)).isNotEqualTo(runner.fingerprints.get(annotationOrder));
+        assertThat(changed.fingerprints).hasSize(3);
+        runner.fingerprints.forEach((check, fingerprint) -> {
+            if (!check.equals(annotationOrder)) assertThat(changed.fingerprints.get(check)).isEqualTo(fingerprint);
+        });
+    }
+
+
+    private Path writeChangedLinesConfiguration(Path changedLines) throws Exception {
+        return CheckstyleTest.writeConfiguration(directory, """
+                <module name="io.github.dmitrybdev.checkstyle.DeclarationOrderCheck">
+                    <property name="template" value="method, field"/>
+                    <property name="changedLines" value="%s"/>
+                </module>
+                """.formatted(changedLines));
+    }
+
+    private Path writeConfiguration() throws Exception {
+        return writeConfiguration("@Lazy @Component");
+    }
+
+    private Path writeConfiguration(String typeTemplate) throws Exception {
+        return writeConfiguration(typeTemplate, "");
+    }
+
+    private Path writeConfiguration(String typeTemplate, String checkerModules) throws Exception {
+        return CheckstyleTest.writeConfiguration(directory, checkerModules, """
+                <module name="io.github.dmitrybdev.checkstyle.AnnotationOrderCheck">
+                    <property name="typeTemplate" value="%s"/>
+                </module>
+                <module name="io.github.dmitrybdev.checkstyle.DeclarationOrderCheck">
+                    <property name="template" value="method, field"/>
+                </module>
+                <module name="io.github.dmitrybdev.checkstyle.BoundaryCheck">
+                    <property name="after" value="field"/>
+                    <property name="before" value="method"/>
+                    <property name="minNewLines" value="1"/>
+                </module>
+                """.formatted(typeTemplate));
+    }
+
+    private List<Path> writeSources(int count) throws Exception {
+        Path sources = Files.createDirectories(directory.resolve("src"));
+        return IntStream.range(0, count)
+                .mapToObj(i -> {
+                    try {
+                        return Files.writeString(sources.resolve("Test%03d.java".formatted(i)), """
+                                @Component
+                                @Lazy
+                                public class Test {
+                                    private String field;
+                                
+                                    void method() {}
+                                }
+                                """);
+                    }
+                    catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+
+    private static List<String> format(List<FileResult> results) {
+        return results.stream()
+                .flatMap(result -> result.violations().stream().map(violation -> format(result.file(), violation)))
+                .toList();
+    }
+
+    private static String format(Path file, Violation violation) {
+        return "%s:%d:%d %s".formatted(file.getFileName(), violation.getLineNo(), violation.getColumnNo(), violation.getViolation());
+    }
+}
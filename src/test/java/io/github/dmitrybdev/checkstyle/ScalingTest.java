@@ -0,0 +1,153 @@
+package io.github.dmitrybdev.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.JavaParser;
+import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+
+/**
+ * Runs every check over generated files of 1k, 10k and 100k members and fails when the time or the memory
+ * allocated per member grows with the size of the file, which is how quadratic behavior shows up. By default only
+ * the memory allocated over small files is checked; the rest runs in the {@code scaling} profile.
+ */
+@TestInstance(PER_CLASS)
+class ScalingTest {
+
+    private static final int[] MEMBERS = { 1_000, 10_000, 100_000 };
+    private static final int[] SMALL_MEMBERS = { 100, 1_000 };
+    private static final int RUNS = 3;
+    /** Time per member may grow by this factor between 1k and 100k members: gc and cache misses. */
+    private static final double MAX_TIME_GROWTH = 4;
+    /** Allocation per member may grow by this factor between 1k and 100k members: array resizing. */
+    private static final double MAX_ALLOCATION_GROWTH = 1.5;
+    private static final long MAX_BYTES_PER_MEMBER = 2048;
+
+    private final CorpusGenerator generator = new CorpusGenerator()
+            .membersPerClass(10_000).annotationsPerMember(3).commentLines(1);
+    private final Map<Integer, ParsedFile> files = new HashMap<>();
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+
+    @Tag("scaling")
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("getChecks")
+    void scalesLinearly(String name, Function<CorpusGenerator, AbstractCheck> checkFactory) throws Exception {
+        Measurement[] measurements = measure(checkFactory, MEMBERS);
+
+        Measurement smallest = measurements[0], largest = measurements[MEMBERS.length - 1];
+        assertThat(largest.nanosPerMember()).as("ns per member, %s", List.of(measurements))
+                .isLessThan(smallest.nanosPerMember() * MAX_TIME_GROWTH);
+        assertAllocationScales(measurements);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("getChecks")
+    void allocatesLinearlyOverSmallFiles(String name, Function<CorpusGenerator, AbstractCheck> checkFactory)
+            throws Exception {
+        assertAllocationScales(measure(checkFactory, SMALL_MEMBERS));
+    }
+
+    private static void assertAllocationScales(Measurement[] measurements) {
+        Measurement smallest = measurements[0], largest = measurements[measurements.length - 1];
+        assertThat(largest.bytesPerMember()).as("bytes per member, %s", List.of(measurements))
+                .isLessThan(smallest.bytesPerMember() * MAX_ALLOCATION_GROWTH)
+                .isLessThan(MAX_BYTES_PER_MEMBER);
+    }
+
+    private Stream<Arguments> getChecks() {
+        return Stream.of(
+                Arguments.of("AnnotationOrderCheck", (Function<CorpusGenerator, AbstractCheck>) generator -> {
+                    var check = new AnnotationOrderCheck();
+                    check.setTypeTemplate(generator.typeTemplate());
+                    check.setFieldTemplate(generator.fieldTemplate());
+                    check.setMethodTemplate(generator.methodTemplate());
+                    return check;
+                }),
+                Arguments.of("DeclarationOrderCheck", (Function<CorpusGenerator, AbstractCheck>) generator -> {
+                    var check = new DeclarationOrderCheck();
+                    check.setTemplate(generator.declarationTemplate());
+                    return check;
+                }),
+                Arguments.of("BoundaryCheck", (Function<CorpusGenerator, AbstractCheck>) generator -> {
+                    var check = new BoundaryCheck();
+                    check.setMinNewLines(1);
+                    check.setMinLength(2);
+                    check.setAfter("field");
+                    check.setBefore("method");
+                    return check;
+                }),
+                Arguments.of("ModifiersSuiteCheck", (Function<CorpusGenerator, AbstractCheck>) generator -> {
+                    var check = new ModifiersSuiteCheck();
+                    check.setFieldTemplate(generator.fieldTemplate());
+                    check.setMethodTemplate(generator.methodTemplate());
+                    check.setTemplate(generator.declarationTemplate());
+                    check.setMinNewLines(1);
+                    check.setAfter("field");
+                    check.setBefore("method");
+                    return check;
+                })
+        );
+    }
+
+    private ParsedFile getFile(int members) throws Exception {
+        ParsedFile file = files.get(members);
+        if (file == null) {
+            String source = generator.members(members).source();
+            var contents = new FileContents(new FileText(new File("Generated.java"), source.lines().toList()));
+            file = new ParsedFile(members, contents, JavaParser.parse(contents));
+            files.put(members, file);
+        }
+        return file;
+    }
+
+    private Measurement[] measure(Function<CorpusGenerator, AbstractCheck> checkFactory, int[] members)
+            throws Exception {
+        Measurement[] measurements = new Measurement[members.length];
+        for (int i = 0; i < members.length; i++) {
+            measurements[i] = measure(checkFactory.apply(generator), getFile(members[i]));
+        }
+        return measurements;
+    }
+
+    private Measurement measure(AbstractCheck check, ParsedFile file) throws Exception {
+        check.init();
+        check.configure(new DefaultConfiguration("Test"));
+
+        long nanos = Long.MAX_VALUE, bytes = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long startBytes = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            CheckstyleTest.walk(check, file.contents(), file.root());
+            nanos = Math.min(nanos, System.nanoTime() - start);
+            bytes = Math.min(bytes, threads.getCurrentThreadAllocatedBytes() - startBytes);
+        }
+        return new Measurement(file.members(), nanos, bytes);
+    }
+
+
+    private record ParsedFile(int members, FileContents contents, DetailAST root) {}
+
+    private record Measurement(int members, long nanos, long bytes) {
+        double nanosPerMember() { return (double) nanos / members; }
+        double bytesPerMember() { return (double) bytes / members; }
+    }
+}
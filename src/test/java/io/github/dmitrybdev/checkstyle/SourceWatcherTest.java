@@ -0,0 +1,114 @@
+package io.github.dmitrybdev.checkstyle;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SourceWatcherTest {
+
+    @TempDir
+    Path directory;
+
+
+    @Test
+    public void reportsNewAndFixedViolationsOfChangedFiles() throws Exception {
+        Path sources = Files.createDirectories(directory.resolve("src"));
+        Path first = Files.writeString(sources.resolve("First.java"), "@Component @Lazy class First {}\n");
+        Path second = Files.writeString(sources.resolve("Second.java"), "@Lazy @Component class Second {}\n");
+        var watcher = new SourceWatcher(ParallelRunner.load(writeConfiguration(), 2), List.of(sources), 100);
+
+        assertThat(watcher.start()).containsExactly(
+                "+ [ERROR] %s:1:12: @Lazy must be placed before @Component [AnnotationOrder]".formatted(first));
+
+        Files.writeString(first, "@Lazy @Component class First {}\n");
+        Files.writeString(second, "\n@Component @Lazy class Second {}\n");
+        assertThat(watcher.update(List.of(second, first, second))).containsExactly(
+                "- [ERROR] %s:1:12: @Lazy must be placed before @Component [AnnotationOrder]".formatted(first),
+                "+ [ERROR] %s:2:12: @Lazy must be placed before @Component [AnnotationOrder]".formatted(second));
+
+        Files.delete(second);
+        assertThat(watcher.update(List.of(second))).containsExactly(
+                "- [ERROR] %s:2:12: @Lazy must be placed before @Component [AnnotationOrder]".formatted(second));
+        assertThat(watcher.update(List.of(first))).isEmpty();
+    }
+
+    @Test
+    public void matchesMovedAndRepeatedViolationsByMessage() throws Exception {
+        Path sources = Files.createDirectories(directory.resolve("src"));
+        Path file = Files.writeString(sources.resolve("Moved.java"), """
+                @Component @Lazy class Moved {}
+                @Component @Lazy class Other {}
+                """);
+        var watcher = new SourceWatcher(ParallelRunner.load(writeConfiguration(), 1), List.of(sources), 100);
+        assertThat(watcher.start()).hasSize(2);
+
+        Files.writeString(file, """
+
+                @Component @Lazy class Moved {}
+                @Component @Lazy class Other {}
+                @Component @Lazy class Third {}
+                """);
+        assertThat(watcher.update(List.of(file))).containsExactly(
+                "+ [ERROR] %s:4:12: @Lazy must be placed before @Component [AnnotationOrder]".formatted(file));
+
+        Files.writeString(file, "@Component @Lazy class Moved {}\n");
+        assertThat(watcher.update(List.of(file))).containsExactly(
+                "- [ERROR] %s:3:12: @Lazy must be placed before @Component [AnnotationOrder]".formatted(file),
+                "- [ERROR] %s:4:12: @Lazy must be placed before @Component [AnnotationOrder]".formatted(file));
+    }
+
+    @Test
+    @Timeout(30)
+    public void checksFilesSavedWhileWatching() throws Exception {
+        Path sources = Files.createDirectories(directory.resolve("src"));
+        var watcher = new SourceWatcher(ParallelRunner.load(writeConfiguration(), 1), List.of(sources), 50);
+        var output = new ByteArrayOutputStream();
+        var out = new PrintStream(output, true);
+        Thread thread = new Thread(() -> {
+            try {
+                watcher.watch(out);
+            }
+            catch (InterruptedException ignored) {
+            }
+            catch (Exception e) {
+                e.printStackTrace(out);
+            }
+        });
+        thread.start();
+        try {
+            awaitOutput(output, "Watching 0 violations...");
+            Path file = Files.writeString(
+                    Files.createDirectories(sources.resolve("nested")).resolve("Saved.java"),
+                    "@Component @Lazy class Saved {}\n");
+
+            awaitOutput(output, "1 new, 0 fixed");
+            assertThat(output.toString()).contains(
+                    "+ [ERROR] %s:1:12: @Lazy must be placed before @Component [AnnotationOrder]".formatted(file));
+        }
+        finally {
+            thread.interrupt();
+            thread.join();
+        }
+    }
+
+
+    private static void awaitOutput(ByteArrayOutputStream output, String text) throws InterruptedException {
+        while (!output.toString().contains(text)) Thread.sleep(10);
+    }
+
+    private Path writeConfiguration() throws Exception {
+        return CheckstyleTest.writeConfiguration(directory, """
+                <module name="io.github.dmitrybdev.checkstyle.AnnotationOrderCheck">
+                    <property name="typeTemplate" value="@Lazy @Component"/>
+                </module>
+                """);
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.dmitrybdev.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import io.github.dmitrybdev.checkstyle.StreamingReporter.Format;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingReporterTest {
+
+    @TempDir
+    Path directory;
+
+
+    @Test
+    public void writesLineOfJsonPerViolation() throws Exception {
+        List<Path> files = writeSources(1, "@Component @Lazy\nclass Test {\n    void method() {}\n    int field;\n}\n");
+
+        assertThat(report(files, Format.NDJSON).lines()).containsExactly(
+                ("{\"file\":\"%s\",\"line\":1,\"column\":12,\"severity\":\"error\","
+                        + "\"ruleId\":\"AnnotationOrder/modifier.order\","
+                        + "\"message\":\"@Lazy must be placed before @Component\"}").formatted(files.get(0)),
+                ("{\"file\":\"%s\",\"line\":4,\"column\":5,\"severity\":\"error\","
+                        + "\"ruleId\":\"DeclarationOrder/declaration.order\","
+                        + "\"message\":\"field must be placed before method\"}").formatted(files.get(0))
+        );
+    }
+
+    @Test
+    public void escapesStrings() {
+        var output = new ByteArrayOutputStream();
+        var reporter = new StreamingReporter(Channels.newChannel(output), Format.NDJSON);
+        var violation = new Violation(3, 0, "messages", "key", new Object[0], SeverityLevel.WARNING, "id",
+                StreamingReporterTest.class, "\"quoted\"\n\ttabbed \\ \u0001");
+
+        reporter.auditStarted(new AuditEvent(this));
+        reporter.addError(new AuditEvent(this, "dir\\Test.java", violation));
+        reporter.auditFinished(new AuditEvent(this));
+
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "{\"file\":\"dir\\\\Test.java\",\"line\":3,\"column\":0,\"severity\":\"warning\","
+                        + "\"ruleId\":\"id/key\",\"message\":\"\\\"quoted\\\"\\n\\ttabbed \\\\ \\u0001\"}\n");
+    }
+
+    @Test
+    public void streamsSarifLogLargerThanBuffer() throws Exception {
+        List<Path> files = writeSources(300, "@Component\n@Lazy\nclass Test {\n    void method() {}\n    int field;\n}\n");
+
+        String sarif = report(files, Format.SARIF);
+
+        assertThat(sarif.getBytes(StandardCharsets.UTF_8).length).isGreaterThan(3 * 64 * 1024);
+        assertThat(sarif).startsWith("{\"version\":\"2.1.0\",").endsWith("]}]}\n");
+        assertThat(sarif.split("\"ruleId\":\"DeclarationOrder/declaration.order\"")).hasSize(files.size() + 1);
+        assertThat(sarif).contains(("{\"ruleId\":\"AnnotationOrder/modifier.order\",\"level\":\"error\","
+                + "\"message\":{\"text\":\"@Lazy must be placed before @Component\"},"
+                + "\"locations\":[{\"physicalLocation\":{\"artifactLocation\":{\"uri\":\"%s\"},"
+                + "\"region\":{\"startLine\":2,\"startColumn\":1}}}]},").formatted(files.get(0).toUri()));
+        assertThat(sarif).doesNotContain("},]").doesNotContain("[,");
+    }
+
+
+    private String report(List<Path> files, Format format) throws Exception {
+        var output = new ByteArrayOutputStream();
+        ParallelRunner.report(
+                ParallelRunner.load(writeConfiguration(), 2), files,
+                new StreamingReporter(Channels.newChannel(output), format)
+        );
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private List<Path> writeSources(int count, String source) throws Exception {
+        Path sources = Files.createDirectories(directory.resolve("src"));
+        return IntStream.range(0, count)
+                .mapToObj(i -> {
+                    try {
+                        return Files.writeString(sources.resolve("Test%03d.java".formatted(i)), source);
+                    }
+                    catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+
+    private Path writeConfiguration() throws Exception {
+        return CheckstyleTest.writeConfiguration(directory, """
+                <module name="io.github.dmitrybdev.checkstyle.AnnotationOrderCheck">
+                    <property name="typeTemplate" value="@Lazy @Component"/>
+                </module>
+                <module name="io.github.dmitrybdev.checkstyle.DeclarationOrderCheck">
+                    <property name="template" value="field, method"/>
+                </module>
+                """);
+    }
+}
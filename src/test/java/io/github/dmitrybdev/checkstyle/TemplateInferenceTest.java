@@ -0,0 +1,136 @@
+package io.github.dmitrybdev.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import io.github.dmitrybdev.checkstyle.TemplateInference.Templates;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static io.github.dmitrybdev.checkstyle.CheckstyleTest.process;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TemplateInferenceTest {
+
+    private static final String SERVICE = """
+            @Component
+            @Lazy
+            public final class %s {
+                private static final int LIMIT = 1;
+
+                @Autowired
+                private final Repository repository;
+                private @Nullable String name;
+
+                public %1$s() {}
+
+                @Override
+                public String toString() { return name; }
+
+                @Bean @Lazy
+                public static Object create(final @Nullable String name) { return null; }
+
+                private void %1$s() {}
+            }
+            """;
+
+    private static final String MISPLACED = """
+            @Lazy @Component
+            public final class Misplaced {
+                public Misplaced() {}
+
+                @Autowired
+                private final Repository repository;
+            }
+            """;
+
+
+    @TempDir
+    Path directory;
+
+
+    @Test
+    public void infersTemplatesFollowedByMostDeclarations() throws Exception {
+        Path sources = Files.createDirectories(directory.resolve("src/main"));
+        for (int i = 0; i < 4; i++) {
+            Files.writeString(sources.resolve("Service" + i + ".java"), SERVICE.formatted("Service" + i));
+        }
+        Files.writeString(sources.resolve("Misplaced.java"), MISPLACED);
+        Files.writeString(sources.resolve("Broken.java"), "class {");
+
+        Templates templates = new TemplateInference(2, 2).infer(List.of(directory.resolve("src")));
+
+        assertThat(templates).isEqualTo(new Templates(
+                "@Component, @Lazy, public final",
+                "@Autowired, private static final @Nullable",
+                "@Bean @Lazy @Override, public private static",
+                "private static field, private field, public constructor, public method, public static method, "
+                        + "private method",
+                5, 1, 0
+        ));
+        for (int i = 0; i < 4; i++) {
+            assertThat(process(createChecks(templates), SERVICE.formatted("Service" + i))).isEmpty();
+        }
+        assertThat(process(createChecks(templates), MISPLACED)).containsExactly(
+                "1:7 @Component must be placed before @Lazy",
+                "5:5 private field must be placed before public constructor"
+        );
+    }
+
+    @Test
+    public void mergesCountsOfNamesSeenInDifferentOrder() {
+        var first = new TemplateInference.Counts();
+        var second = new TemplateInference.Counts();
+        first.before[first.index(first.id("a"), first.id("b"))] = 3;
+        first.occurrences[first.id("a")] = 3;
+        first.occurrences[first.id("b")] = 3;
+        second.before[second.index(second.id("b"), second.id("a"))] = 1;
+        second.occurrences[second.id("b")] = 1;
+        second.occurrences[second.id("a")] = 1;
+        for (int i = 0; i < 40; i++) {
+            int id = second.id("name" + i);
+            second.occurrences[id] = 1;
+        }
+
+        first.merge(second);
+
+        assertThat(first.size()).isEqualTo(42);
+        assertThat(first.before[first.index(first.id("b"), first.id("a"))]).isEqualTo(1);
+        assertThat(first.inferTemplate(2, false)).isEqualTo("a, b");
+    }
+
+    @Test
+    public void dropsRareNamesWhenFull() {
+        int names = TemplateInference.MAX_NAMES * 2;
+        var merged = new TemplateInference.Counts();
+        for (String thread : List.of("@First", "@Second")) {
+            var counts = new TemplateInference.Counts();
+            for (int i = 0; i < names; i++) {
+                counts.reserve(2);
+                int frequent = counts.id("@Frequent"), rare = counts.id(thread + i);
+                counts.occurrences[frequent]++;
+                counts.occurrences[rare]++;
+                counts.before[counts.index(frequent, rare)]++;
+            }
+            assertThat(counts.size()).isLessThanOrEqualTo(TemplateInference.MAX_NAMES);
+            merged.merge(counts);
+        }
+
+        assertThat(merged.size()).isEqualTo(TemplateInference.MAX_NAMES);
+        assertThat(merged.occurrences[merged.id("@Frequent")]).isEqualTo(names * 2);
+        assertThat(merged.dropped()).isEqualTo(names * 2 - merged.size() + 1);
+        assertThat(merged.inferTemplate(2, false)).isEqualTo("@Frequent");
+    }
+
+    private static List<AbstractCheck> createChecks(Templates templates) {
+        var annotationOrderCheck = new AnnotationOrderCheck();
+        annotationOrderCheck.setTypeTemplate(templates.typeTemplate());
+        annotationOrderCheck.setFieldTemplate(templates.fieldTemplate());
+        annotationOrderCheck.setMethodTemplate(templates.methodTemplate());
+        var declarationOrderCheck = new DeclarationOrderCheck();
+        declarationOrderCheck.setTemplate(templates.template());
+        return List.of(annotationOrderCheck, declarationOrderCheck);
+    }
+}